@@ -6,10 +6,19 @@ import android.support.annotation.NonNull;
 
 import com.google.gson.Gson;
 import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.RandomSource;
+import com.willowtreeapps.namegame.core.gamelogic.RecallScheduler;
+import com.willowtreeapps.namegame.core.gamelogic.RecallStore;
+import com.willowtreeapps.namegame.core.history.HistoryStore;
+import com.willowtreeapps.namegame.core.gamelogic.SplitMix64;
+import com.willowtreeapps.namegame.network.NetworkModule;
 import com.willowtreeapps.namegame.network.api.ProfilesRepository;
 
-import java.util.Random;
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -41,18 +50,42 @@ class ApplicationModule {
     }
 
     @Provides @NonNull @Singleton
-    public Random provideRandom() {
-        return new Random(System.currentTimeMillis());
+    public RandomSource provideRandomSource() {
+        return SplitMix64.withRandomSeed();
     }
 
     @Provides @NonNull @Singleton
-    public ListRandomizer provideListRandomizer(@NonNull Random random) {
+    public ListRandomizer provideListRandomizer(@NonNull RandomSource random) {
         return new ListRandomizer(random);
     }
 
+    @Provides @NonNull @Singleton
+    public RecallStore provideRecallStore(@NonNull Context context,
+                                          @NonNull @Named(NetworkModule.MAIN_THREAD) Executor mainThread) {
+        return new RecallStore(new File(context.getFilesDir(), "recall.bin"),
+                Executors.newSingleThreadExecutor(), mainThread);
+    }
+
+    @Provides @NonNull @Singleton
+    public HistoryStore provideHistoryStore(@NonNull Context context) {
+        return new HistoryStore(context.getDir("history", Context.MODE_PRIVATE),
+                Executors.newSingleThreadExecutor());
+    }
+
     @Provides @NonNull @Singleton
     public GameLogic provideGameLogic(@NonNull ListRandomizer listRandomizer,
-                                      @NonNull ProfilesRepository profilesRepository) {
-        return new GameLogic(listRandomizer, profilesRepository);
+                                      @NonNull ProfilesRepository profilesRepository,
+                                      @NonNull RecallStore recallStore,
+                                      @NonNull HistoryStore historyStore) {
+        final GameLogic gameLogic = new GameLogic(listRandomizer, profilesRepository,
+                new RecallScheduler(), historyStore);
+        // Off the main thread; the game plays on a blank history until it is read back
+        recallStore.read(new RecallStore.ReadCallback() {
+            @Override
+            public void onRead(@NonNull RecallScheduler scheduler) {
+                gameLogic.setScheduler(scheduler);
+            }
+        });
+        return gameLogic;
     }
 }
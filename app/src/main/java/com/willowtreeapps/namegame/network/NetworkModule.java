@@ -2,6 +2,8 @@ package com.willowtreeapps.namegame.network;
 
 import android.content.Context;
 import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 
 import com.google.gson.Gson;
@@ -9,9 +11,17 @@ import com.jakewharton.picasso.OkHttp3Downloader;
 import com.squareup.picasso.Picasso;
 import com.willowtreeapps.namegame.BuildConfig;
 import com.willowtreeapps.namegame.network.api.NameGameApi;
+import com.willowtreeapps.namegame.network.api.NotModifiedInterceptor;
+import com.willowtreeapps.namegame.network.api.PeopleConverterFactory;
 import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.ProfilesSnapshot;
+import com.willowtreeapps.namegame.util.BitmapPool;
+import com.willowtreeapps.namegame.util.CircleThumbnailCache;
+import com.willowtreeapps.namegame.util.HeadshotRequestHandler;
 
 import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
@@ -29,8 +39,11 @@ import retrofit2.converter.gson.GsonConverterFactory;
 public class NetworkModule {
 
     public static final String NETWORK_CACHE = "network_cache";
+    public static final String PROFILES_SNAPSHOT = "profiles_snapshot";
+    public static final String MAIN_THREAD = "main_thread";
 
     private static final int GLOBAL_TIMEOUT = 30; // seconds
+    private static final int PROFILES_PAGE_SIZE = 100; // fetched up to 5 at once, OkHttp's limit per host
 
     @NonNull
     private final HttpUrl endpoint;
@@ -53,6 +66,18 @@ public class NetworkModule {
         return context.getDir(NETWORK_CACHE, Context.MODE_PRIVATE);
     }
 
+    @Provides @NonNull @Singleton @Named(PROFILES_SNAPSHOT)
+    public File provideProfilesSnapshotDirectory(@NonNull Context context) {
+        return context.getDir(PROFILES_SNAPSHOT, Context.MODE_PRIVATE);
+    }
+
+    @Provides @NonNull @Singleton
+    public ProfilesSnapshot provideProfilesSnapshot(@NonNull @Named(PROFILES_SNAPSHOT) File snapshotDir,
+                                                    @NonNull @Named(MAIN_THREAD) Executor mainThread) {
+        return new ProfilesSnapshot(new File(snapshotDir, "profiles.bin"),
+                Executors.newSingleThreadExecutor(), mainThread);
+    }
+
     @Provides @NonNull @Singleton
     public Cache provideNetworkCache(@NonNull @Named(NETWORK_CACHE) File cacheDir) {
         int cacheSize = 50 * 1024 * 1024; // 50 MiB
@@ -63,17 +88,37 @@ public class NetworkModule {
     public OkHttpClient provideHttpClient(@NonNull Cache cache) {
         return new OkHttpClient.Builder()
                 .cache(cache)
+                .addInterceptor(new NotModifiedInterceptor())
                 .connectTimeout(GLOBAL_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(GLOBAL_TIMEOUT, TimeUnit.SECONDS)
                 .writeTimeout(GLOBAL_TIMEOUT, TimeUnit.SECONDS)
                 .build();
     }
 
+    @Provides @NonNull @Singleton @Named(MAIN_THREAD)
+    public Executor provideMainThreadExecutor() {
+        final Handler handler = new Handler(Looper.getMainLooper());
+        return new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                handler.post(command);
+            }
+        };
+    }
+
+    @Provides @NonNull @Singleton
+    public PeopleConverterFactory providePeopleConverterFactory() {
+        return new PeopleConverterFactory();
+    }
+
     @Provides @NonNull @Singleton
-    public NameGameApi provideApi(@NonNull Gson gson, @NonNull OkHttpClient client, @NonNull HttpUrl url) {
+    public NameGameApi provideApi(@NonNull Gson gson, @NonNull OkHttpClient client, @NonNull HttpUrl url,
+                                  @NonNull PeopleConverterFactory peopleConverterFactory) {
         return new Retrofit.Builder()
                 .client(client)
                 .baseUrl(url)
+                // Streams the profiles; anything else falls through to Gson
+                .addConverterFactory(peopleConverterFactory)
                 .addConverterFactory(GsonConverterFactory.create(gson))
                 .validateEagerly(BuildConfig.DEBUG)
                 .build()
@@ -81,14 +126,30 @@ public class NetworkModule {
     }
 
     @Provides @NonNull @Singleton
-    public ProfilesRepository providePersonRepository(@NonNull NameGameApi api) {
-        return new ProfilesRepository(api);
+    public ProfilesRepository providePersonRepository(@NonNull NameGameApi api,
+                                                      @NonNull ProfilesSnapshot snapshot) {
+        return new ProfilesRepository(api, snapshot, PROFILES_PAGE_SIZE);
+    }
+
+    @Provides @NonNull @Singleton
+    public BitmapPool provideBitmapPool() {
+        // Enough for the thumbs of a few rounds
+        return new BitmapPool(4 * 1024 * 1024); // 4 MiB
+    }
+
+    @Provides @NonNull @Singleton
+    public CircleThumbnailCache provideCircleThumbnailCache(@NonNull BitmapPool pool) {
+        // An eighth of the heap holds a few hundred thumbs
+        return new CircleThumbnailCache((int) (Runtime.getRuntime().maxMemory() / 8), pool);
     }
 
     @Provides @NonNull @Singleton
     public Picasso providePicasso(@NonNull Context context, @NonNull OkHttpClient client) {
+        OkHttp3Downloader downloader = new OkHttp3Downloader(client);
         return new Picasso.Builder(context)
-                .downloader(new OkHttp3Downloader(client))
+                .downloader(downloader)
+                // Headshots of known size are subsampled as they are decoded
+                .addRequestHandler(new HeadshotRequestHandler(downloader))
                 .defaultBitmapConfig(Bitmap.Config.ARGB_8888)
                 .build();
     }
@@ -0,0 +1,103 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parcels a {@link Person}, which is a plain Java model of the core module, for bundles and
+ * intents
+ */
+public class ParcelablePerson implements Parcelable {
+
+    @NonNull
+    private final Person person;
+
+    public ParcelablePerson(@NonNull Person person) {
+        this.person = person;
+    }
+
+    @NonNull
+    public Person getPerson() {
+        return person;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(person.getId());
+        dest.writeString(person.getType());
+        dest.writeString(person.getSlug());
+        dest.writeString(person.getJobTitle());
+        dest.writeString(person.getFirstName());
+        dest.writeString(person.getLastName());
+
+        Headshot headshot = person.getHeadshot();
+        dest.writeInt(headshot == null ? 0 : 1);
+        if (headshot != null) {
+            dest.writeString(headshot.getType());
+            dest.writeString(headshot.getMimeType());
+            dest.writeString(headshot.getId());
+            dest.writeString(headshot.getUrl());
+            dest.writeString(headshot.getAlt());
+            dest.writeInt(headshot.getHeight());
+            dest.writeInt(headshot.getWidth());
+        }
+
+        List<SocialLinks> socialLinks = person.getSocialLinks();
+        dest.writeInt(socialLinks == null ? 0 : socialLinks.size());
+        if (socialLinks != null) {
+            for (SocialLinks link : socialLinks) {
+                dest.writeString(link.getType());
+                dest.writeString(link.getCallToAction());
+                dest.writeString(link.getUrl());
+            }
+        }
+    }
+
+    private static Person readPerson(Parcel in) {
+        String id = in.readString();
+        String type = in.readString();
+        String slug = in.readString();
+        String jobTitle = in.readString();
+        String firstName = in.readString();
+        String lastName = in.readString();
+
+        Headshot headshot = null;
+        if (in.readInt() != 0) {
+            headshot = new Headshot(in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    in.readInt(),
+                    in.readInt());
+        }
+
+        int links = in.readInt();
+        List<SocialLinks> socialLinks = new ArrayList<>(links);
+        for (int i = 0; i < links; i++)
+            socialLinks.add(new SocialLinks(in.readString(), in.readString(), in.readString()));
+
+        return new Person(id, type, slug, jobTitle, firstName, lastName, headshot, socialLinks);
+    }
+
+    public static final Creator<ParcelablePerson> CREATOR = new Creator<ParcelablePerson>() {
+        @Override
+        public ParcelablePerson createFromParcel(Parcel source) {
+            return new ParcelablePerson(readPerson(source));
+        }
+
+        @Override
+        public ParcelablePerson[] newArray(int size) {
+            return new ParcelablePerson[size];
+        }
+    };
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+}
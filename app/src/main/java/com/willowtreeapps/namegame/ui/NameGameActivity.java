@@ -72,6 +72,18 @@ public class NameGameActivity extends AppCompatActivity {
                 gameMode = GameLogic.Mode.CHEAT;
                 break;
 
+            case R.id.mode_spaced:
+                gameMode = GameLogic.Mode.SPACED;
+                break;
+
+            case R.id.mode_review:
+                gameMode = GameLogic.Mode.REVIEW;
+                break;
+
+            case R.id.mode_type_name:
+                gameMode = GameLogic.Mode.TYPE_NAME;
+                break;
+
             default:
                 return super.onOptionsItemSelected(item);
         }
@@ -1,16 +1,24 @@
 package com.willowtreeapps.namegame.ui;
 
 import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.constraint.Group;
 import android.support.v4.app.Fragment;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.inputmethod.EditorInfo;
 import android.view.animation.Interpolator;
 import android.view.animation.OvershootInterpolator;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.TextView;
@@ -20,10 +28,14 @@ import com.squareup.picasso.Callback;
 import com.squareup.picasso.Picasso;
 import com.willowtreeapps.namegame.R;
 import com.willowtreeapps.namegame.core.GameLogic;
+import com.willowtreeapps.namegame.core.GameSession;
 import com.willowtreeapps.namegame.core.NameGameApplication;
+import com.willowtreeapps.namegame.core.gamelogic.NameIndex;
+import com.willowtreeapps.namegame.core.gamelogic.RecallStore;
 import com.willowtreeapps.namegame.network.api.model.Person;
-import com.willowtreeapps.namegame.util.CircleBorderTransform;
-import com.willowtreeapps.namegame.util.Ui;
+import com.willowtreeapps.namegame.util.BitmapPool;
+import com.willowtreeapps.namegame.util.CircleThumbnailCache;
+import com.willowtreeapps.namegame.util.HeadshotPrefetcher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,13 +50,43 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
     GameLogic gameLogic;
     @Inject
     Picasso picasso;
+    @Inject
+    CircleThumbnailCache thumbnails;
+    @Inject
+    BitmapPool bitmapPool;
+    @Inject
+    RecallStore recallStore;
 
     private TextView prompt;
     private Group container;
     private List<ImageView> faces = new ArrayList<>(6);
+    /**
+     * The thumb each face shows, bound in the thumbnail cache so it is never pooled while shown
+     */
+    private Bitmap[] mBoundThumbs;
+    /**
+     * One per face, so a loaded thumb is bound to the face it went into
+     */
+    private List<Callback> mPicassoCallbacks = new ArrayList<>(6);
     private List<TextView> mNames = new ArrayList<>(6);
     private ProgressBar mProgressBar;
+    /**
+     * The name typed in the typed mode, and the names suggested for it
+     */
+    private View mTypedAnswer;
+    private EditText mTypedName;
+    private List<TextView> mSuggestions = new ArrayList<>(4);
+    /**
+     * The roster positions of the people suggested, in the order of mSuggestions
+     */
+    private int[] mSuggested;
     private int mNumberOfImagesFinishedLoading;
+    private HeadshotPrefetcher mHeadshots;
+    /**
+     * The thumbs and the name of the round on the board, to tell whether a load changed it
+     */
+    private List<Person> mShownThumbs;
+    private Person mShownName;
 
     private static final int ANIMATION_DELAY = 800;
 
@@ -67,6 +109,9 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         super.onCreate(savedInstanceState);
         NameGameApplication.get(getActivity()).component().inject(this);
         // Now the injections are ready
+        mHeadshots = new HeadshotPrefetcher(picasso, thumbnails, bitmapPool,
+                getResources().getDimensionPixelSize(R.dimen.thumbSize),
+                getResources().getBoolean(R.bool.headshots_rgb565));
 
         // Determine whether there was already a game in progress. If not, then begin a new game,
         // so the UX is immediate engagement
@@ -89,6 +134,17 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         mProgressBar = view.findViewById(R.id.myProgressBar);
         container = view.findViewById(R.id.face_container);
         view.findViewById(R.id.nextTurn).setOnClickListener(onPersonSelected);
+        mTypedAnswer = view.findViewById(R.id.typed_answer);
+        mTypedName = view.findViewById(R.id.typed_name);
+        mTypedName.addTextChangedListener(onNameTyped);
+        mTypedName.setOnEditorActionListener(onNameAnswered);
+        ViewGroup suggestions = view.findViewById(R.id.suggestions);
+        for (int i = 0; i < suggestions.getChildCount(); i++) {
+            TextView suggestion = (TextView) suggestions.getChildAt(i);
+            suggestion.setOnClickListener(onSuggestionSelected);
+            mSuggestions.add(suggestion);
+        }
+        mSuggested = new int[mSuggestions.size()];
 
         int[] ids = container.getReferencedIds();
         View person;
@@ -99,6 +155,7 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
             person.setOnClickListener(onPersonSelected);
 
             ImageView face = person.findViewById(R.id.portrait);
+            mPicassoCallbacks.add(new FaceCallback(faces.size()));
             faces.add(face);
 
             TextView name = person.findViewById(R.id.firstName);
@@ -107,6 +164,10 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
             mNames.add(name);
         }
 
+        mBoundThumbs = new Bitmap[faces.size()];
+        // The new views show no round yet
+        mShownThumbs = null;
+        mShownName = null;
         gameLogic.register(this);
 
         if (!gameLogic.isReady()) {
@@ -116,10 +177,27 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         }
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // The thumbs of the faces may be pooled once evicted
+        for (int i = 0; i < faces.size(); i++) {
+            picasso.cancelRequest(faces.get(i));
+            bindThumb(i, null);
+        }
+        faces.clear();
+        mPicassoCallbacks.clear();
+        mNames.clear();
+        mSuggestions.clear();
+    }
+
     @Override
     public void onStop() {
         super.onStop();
         gameLogic.unregister(this);
+        // What the player recalled carries over to the next run
+        recallStore.write(gameLogic.getScheduler());
+        if (gameLogic.getHistory() != null) gameLogic.getHistory().flush();
     }
 
     /**
@@ -127,6 +205,8 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
      * @param mode Mode as defined by {@link GameLogic.Mode}
      */
     public void setMode(int mode) {
+        // The round of the new mode shows its own answer, once it starts
+        showTypedAnswer(false);
         // Updated "Presenter" in MVP
         // This works as liveData, which will emit the changes back to the Ui, the "View" in MVP
         if (!gameLogic.newGame(mode)) {
@@ -139,9 +219,9 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
      * <p>Pre: faces.size() >= people.size()</p>
      */
     private void setImages(List<ImageView> faces, List<Person> people) {
-        int imageSize = getContext().getResources().getDimensionPixelSize(R.dimen.thumbSize);
         int n = people.size();
-        String url;
+        Person person;
+        Bitmap thumb;
 
         // Used to sync the Images when loading;
         mNumberOfImagesFinishedLoading = 0;
@@ -152,34 +232,93 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         for (int i = 0; i < n; i++) {
             ImageView face = faces.get(i);
 
-            url = Ui.urlPathWithScheme(people.get(i).getHeadshot().getUrl());
-            if (url == null) {
+            person = people.get(i);
+            thumb = mHeadshots.cached(person);
+            if (thumb != null) {
+                // Seen before; skip decoding and transforming it again
+                picasso.cancelRequest(face);
+                face.setImageBitmap(thumb);
+                bindThumb(i, thumb);
+                onFinishedLoadingImage();
+                continue;
+            }
+            if (person.getHeadshot().getUrl() == null) {
                 // The callback gets called when url != null
                 // We need to offset the number of times it does not get called,
-                // so we know when all of the images are finished being loaded
-                mNumberOfImagesFinishedLoading++;
+                // so we know when all of the images are finished being loaded. Counted through
+                // onFinishedLoadingImage, as cached thumbs may already have finished the others
+                onFinishedLoadingImage();
             }
 
-            picasso.load(url)
+            // The placeholder replaces the thumb shown, which is bound again once loaded
+            bindThumb(i, null);
+            mHeadshots.request(person)
                     .placeholder(R.drawable.ic_face_white_48dp)
-                    .resize(imageSize, imageSize)
-                    .centerCrop()
-                    .transform(new CircleBorderTransform())
                     .noFade() // We want our own animation, not animation based on load order
-                    .into(face, mPicassoCallback);
+                    .into(face, mPicassoCallbacks.get(i));
         }
 
-        for (int i = n; i < faces.size(); i++)
+        for (int i = n; i < faces.size(); i++) {
             faces.get(i).setImageResource(R.drawable.ic_face_white_48dp);
+            bindThumb(i, null);
+        }
+    }
+
+    /**
+     * Records that face i shows thumb, and lets go of the thumb it showed before
+     */
+    private void bindThumb(int i, @Nullable Bitmap thumb) {
+        Bitmap previous = mBoundThumbs[i];
+        if (previous == thumb) return;
+        mBoundThumbs[i] = thumb;
+        if (thumb != null) thumbnails.bind(thumb);
+        if (previous != null) thumbnails.unbind(previous);
     }
 
     private void updatePrompt(Person namedPerson) {
+        if (isTyped()) {
+            // The name is the answer
+            prompt.setText(R.string.question_typed);
+            return;
+        }
         prompt.setText(String.format(getString(R.string.question),
                 namedPerson.getFirstName(),
                 namedPerson.getLastName()
         ));
     }
 
+    private boolean isTyped() {
+        return gameLogic.getMode() == GameLogic.Mode.TYPE_NAME;
+    }
+
+    /**
+     * Shows the empty name field of a new typed round, or hides it
+     */
+    private void showTypedAnswer(boolean show) {
+        mTypedAnswer.setVisibility(show ? View.VISIBLE : View.GONE);
+        mTypedName.setText("");
+        for (TextView suggestion : mSuggestions)
+            suggestion.setVisibility(View.GONE);
+    }
+
+    /**
+     * Lists the people whose names begin with the text of the cursor, if any was typed
+     */
+    private void showSuggestions(@NonNull GameSession session) {
+        NameIndex.Cursor cursor = session.cursor();
+        int n = cursor.length() == 0 ? 0 : cursor.suggestions(mSuggested);
+        for (int i = 0; i < mSuggestions.size(); i++) {
+            TextView suggestion = mSuggestions.get(i);
+            if (i < n) {
+                Person person = session.suggested(mSuggested[i]);
+                suggestion.setText(person.getFirstName() + " " + person.getLastName());
+                suggestion.setVisibility(View.VISIBLE);
+            } else {
+                suggestion.setVisibility(View.GONE);
+            }
+        }
+    }
+
 
     private void revealNames(List<TextView> names, GameLogic.PeopleLogic peopleLogic, boolean withDelay) {
         // Get the people backed by the thumbs
@@ -193,7 +332,8 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         int colorNormal = res.getColor(R.color.darkGray);
         int colorHighlight = res.getColor(peopleLogic.isCorrect() ? R.color.alphaGreen :
                 R.color.alphaRed);
-        int correctItemIndex = peopleLogic.correctItemIndex();
+        // The one face of the typed mode is the answer, whose index is in the roster
+        int correctItemIndex = isTyped() ? 0 : peopleLogic.correctItemIndex();
 
         for (int i = 0; i < n; i++) {
             t = names.get(i);
@@ -236,6 +376,8 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
             showPrompt(true);
             animateFacesIn();
             showProgressBar(false);
+            // The player sees the round only now, so its answer is timed from here
+            gameLogic.onRoundShown();
             if (gameLogic.fullyRevealItems()) {
                 revealNames(mNames, peopleLogic, true);
             } else {
@@ -272,8 +414,24 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
 
     @Override
     public void onGameLogicLoadSuccess(@NonNull GameLogic.PeopleLogic peopleLogic) {
-        updatePrompt(peopleLogic.currentNames().get(0));
-        setImages(faces, peopleLogic.currentThumbs());
+        // More pages of the roster keep the round in play, which stays on the board as it is
+        if (!isShown(peopleLogic)) showRound(peopleLogic);
+        mHeadshots.prefetch(peopleLogic.upcomingThumbs());
+    }
+
+    private boolean isShown(GameLogic.PeopleLogic peopleLogic) {
+        Person name = peopleLogic.currentNames().get(0);
+        return mShownThumbs != null && mShownThumbs.equals(peopleLogic.currentThumbs()) &&
+                (mShownName == null ? name == null : mShownName.equals(name));
+    }
+
+    private void showRound(GameLogic.PeopleLogic peopleLogic) {
+        // Copied, as a mode may refill the same list on the next round
+        mShownThumbs = new ArrayList<>(peopleLogic.currentThumbs());
+        mShownName = peopleLogic.currentNames().get(0);
+        updatePrompt(mShownName);
+        showTypedAnswer(isTyped());
+        setImages(faces, mShownThumbs);
     }
 
     @Override
@@ -314,16 +472,18 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
 
                         // Update the Ui, the 'V' in "MVP"
                         showPrompt(false);
-                        setImages(faces, peopleLogic.currentThumbs());
+                        showRound(peopleLogic);
                         hideNames(mNames);
-                        updatePrompt(peopleLogic.currentNames().get(0));
+                        // So the next rounds load from cache
+                        mHeadshots.prefetch(peopleLogic.upcomingThumbs());
                     }
                     return;
 
                 default:
                     return;
             }
-            if (gameLogic.fullyRevealItems()) return;
+            // The typed mode is answered by name, see onSuggestionSelected
+            if (isTyped() || gameLogic.fullyRevealItems()) return;
 
             peopleLogic.onItemSelected(index);
 
@@ -332,9 +492,71 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         }
     };
 
-    final private Callback mPicassoCallback = new Callback() {
+    final private TextWatcher onNameTyped = new TextWatcher() {
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+        }
+
+        @Override
+        public void afterTextChanged(Editable typed) {
+            GameSession session = gameLogic.getSession();
+            if (session == null || !isTyped() || mTypedAnswer.getVisibility() != View.VISIBLE)
+                return;
+
+            // Typed over from the start, as an edit may change the text anywhere
+            NameIndex.Cursor cursor = session.cursor();
+            cursor.clear();
+            for (int i = 0; i < typed.length(); i++)
+                cursor.type(typed.charAt(i));
+            showSuggestions(session);
+        }
+    };
+
+    final private TextView.OnEditorActionListener onNameAnswered =
+            new TextView.OnEditorActionListener() {
+        @Override
+        public boolean onEditorAction(TextView v, int actionId, KeyEvent event) {
+            if (actionId != EditorInfo.IME_ACTION_DONE) return false;
+            GameSession session = gameLogic.getSession();
+            if (session == null || !isTyped() || gameLogic.fullyRevealItems()) return true;
+
+            // The whole name typed, forgiving typos and nicknames
+            session.answer(v.getText().toString());
+            revealNames(mNames, session, false);
+            return true;
+        }
+    };
+
+    final private View.OnClickListener onSuggestionSelected = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            int i = mSuggestions.indexOf(v);
+            if (i < 0 || !isTyped() || gameLogic.fullyRevealItems()) return;
+
+            GameLogic.PeopleLogic peopleLogic = gameLogic.getPeopleLogic();
+            // Selected by their position in the roster, as suggested by the cursor
+            peopleLogic.onItemSelected(mSuggested[i]);
+            revealNames(mNames, peopleLogic, false);
+        }
+    };
+
+    private final class FaceCallback implements Callback {
+        private final int index;
+
+        FaceCallback(int index) {
+            this.index = index;
+        }
+
         @Override
         public void onSuccess() {
+            // Picasso wraps the thumb it loaded in a BitmapDrawable
+            Drawable drawable = faces.get(index).getDrawable();
+            if (drawable instanceof BitmapDrawable)
+                bindThumb(index, ((BitmapDrawable) drawable).getBitmap());
             onFinishedLoadingImage();
         }
 
@@ -342,5 +564,5 @@ public class NameGameFragment extends Fragment implements GameLogic.Listener, Na
         public void onError() {
             onFinishedLoadingImage();
         }
-    };
+    }
 }
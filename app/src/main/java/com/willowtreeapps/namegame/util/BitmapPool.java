@@ -0,0 +1,74 @@
+package com.willowtreeapps.namegame.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+import android.util.LongSparseArray;
+
+import java.util.ArrayDeque;
+
+/**
+ * <p>Pool of mutable bitmaps, bucketed by width, height and config, so that bitmaps of a common
+ * size are drawn into again instead of being allocated and collected.</p>
+ * <p>Holds at most maxBytes of bitmaps; beyond that, returned bitmaps are recycled. Thread-safe.</p>
+ */
+public class BitmapPool {
+
+    private final LongSparseArray<ArrayDeque<Bitmap>> buckets = new LongSparseArray<>();
+    private final int maxBytes;
+    private int bytes;
+
+    public BitmapPool(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return a transparent, mutable bitmap, from the pool when one of the same size is available
+     */
+    @NonNull
+    public Bitmap get(int width, int height, @NonNull Bitmap.Config config) {
+        Bitmap bitmap = null;
+        synchronized (this) {
+            ArrayDeque<Bitmap> bucket = buckets.get(key(width, height, config));
+            if (bucket != null) {
+                bitmap = bucket.poll();
+                if (bitmap != null) bytes -= sizeOf(bitmap);
+            }
+        }
+        if (bitmap == null) return Bitmap.createBitmap(width, height, config);
+
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Gives up bitmap to the pool. The caller must no longer draw or display it
+     */
+    public void put(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled() || !bitmap.isMutable() || bitmap.getConfig() == null) return;
+
+        int size = sizeOf(bitmap);
+        synchronized (this) {
+            if (bytes + size <= maxBytes) {
+                long key = key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+                ArrayDeque<Bitmap> bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new ArrayDeque<>();
+                    buckets.put(key, bucket);
+                }
+                bucket.push(bitmap);
+                bytes += size;
+                return;
+            }
+        }
+        bitmap.recycle();
+    }
+
+    private static long key(int width, int height, Bitmap.Config config) {
+        return ((long) width << 32) | ((long) height << 8) | config.ordinal();
+    }
+
+    private static int sizeOf(Bitmap bitmap) {
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
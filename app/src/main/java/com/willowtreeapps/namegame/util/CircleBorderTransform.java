@@ -1,22 +1,62 @@
 package com.willowtreeapps.namegame.util;
 
 import android.graphics.Bitmap;
-import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.squareup.picasso.Transformation;
 
+/**
+ * <p>Crops a headshot to a circle with a border.</p>
+ * <p>The output is drawn into a bitmap from the {@link BitmapPool}, and the Canvas and Paints are
+ * kept per Picasso worker thread, so a transform allocates no bitmaps or drawing objects of its
+ * own once the pool is warm. The source it is given is still decoded into a new bitmap on each
+ * miss of the {@link CircleThumbnailCache}, since Picasso requires it to be recycled rather than
+ * pooled; only a thumb drawn from the cache allocates nothing.</p>
+ */
 public class CircleBorderTransform implements Transformation {
 
-    private static final int BORDER_COLOR = Color.WHITE;
+    public static final int BORDER_COLOR = Color.WHITE;
     private static final int BORDER_RADIUS = 5;
 
+    /**
+     * Drawing state for one thread, since Picasso runs transforms on several threads at once
+     */
+    private static final ThreadLocal<Renderer> RENDERER = new ThreadLocal<Renderer>() {
+        @Override
+        protected Renderer initialValue() {
+            return new Renderer();
+        }
+    };
+
+    @Nullable
+    private final BitmapPool pool;
+    @Nullable
+    private final CircleThumbnailCache cache;
+    @Nullable
+    private final String cacheKey;
+
     public CircleBorderTransform() {
-        Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        borderPaint.setColor(BORDER_COLOR);
-        borderPaint.setStyle(Paint.Style.STROKE);
+        this(null, null, null);
+    }
+
+    /**
+     * @param pool Supplies the output bitmap; a new one is allocated when null
+     * @param cache Receives the transformed bitmap under cacheKey, see
+     *              {@link CircleThumbnailCache#key(String, int, int)}
+     */
+    public CircleBorderTransform(@Nullable BitmapPool pool,
+                                 @Nullable CircleThumbnailCache cache,
+                                 @Nullable String cacheKey) {
+        this.pool = pool;
+        this.cache = cache;
+        this.cacheKey = cacheKey;
     }
 
     @Override
@@ -26,38 +66,56 @@ public class CircleBorderTransform implements Transformation {
         int x = (source.getWidth() - size) / 2;
         int y = (source.getHeight() - size) / 2;
 
-        Bitmap squaredBitmap = Bitmap.createBitmap(source, x, y, size, size);
-        if (squaredBitmap != source) {
-            source.recycle();
-        }
+        // The corners are transparent, whatever the config of the source
+        Bitmap bitmap = pool != null ? pool.get(size, size, Bitmap.Config.ARGB_8888) :
+                Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
 
-        Bitmap bitmap = Bitmap.createBitmap(size, size, source.getConfig());
-
-        Canvas canvas = new Canvas(bitmap);
-        Paint paint = new Paint();
-        BitmapShader shader = new BitmapShader(squaredBitmap, BitmapShader.TileMode.CLAMP, BitmapShader.TileMode.CLAMP);
-        paint.setShader(shader);
-        paint.setAntiAlias(true);
+        Renderer renderer = RENDERER.get();
+        Canvas canvas = renderer.canvas;
+        canvas.setBitmap(bitmap);
 
         float r = size / 2f;
 
-        // Prepare the background
-        Paint paintBg = new Paint();
-        paintBg.setColor(BORDER_COLOR);
-        paintBg.setAntiAlias(true);
+        // Mask the image to a circle smaller than the background so a little border will be seen
+        canvas.drawCircle(r, r, r - BORDER_RADIUS, renderer.mask);
+
+        // Draw the centered square of the image into the mask, without cropping it first
+        renderer.src.set(x, y, x + size, y + size);
+        renderer.dst.set(0, 0, size, size);
+        canvas.drawBitmap(source, renderer.src, renderer.dst, renderer.image);
 
-        // Draw the background circle
-        canvas.drawCircle(r, r, r, paintBg);
+        // Draw the background circle behind the image
+        canvas.drawCircle(r, r, r, renderer.border);
 
-        // Draw the image smaller than the background so a little border will be seen
-        canvas.drawCircle(r, r, r - BORDER_RADIUS, paint);
+        canvas.setBitmap(null);
+        // Picasso requires a transformed source to be recycled
+        source.recycle();
 
-        squaredBitmap.recycle();
+        if (cache != null && cacheKey != null)
+            cache.put(cacheKey, bitmap);
         return bitmap;
     }
 
+    @NonNull
     @Override
     public String key() {
-        return "circle";
+        // The output depends on the border, so it is part of Picasso's cache key
+        return "circle(" + Integer.toHexString(BORDER_COLOR) + "," + BORDER_RADIUS + ")";
+    }
+
+    private static final class Renderer {
+        final Canvas canvas = new Canvas();
+        final Rect src = new Rect();
+        final Rect dst = new Rect();
+        final Paint mask = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final Paint image = new Paint(Paint.FILTER_BITMAP_FLAG);
+        final Paint border = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        Renderer() {
+            mask.setColor(Color.BLACK);
+            image.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
+            border.setColor(BORDER_COLOR);
+            border.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_OVER));
+        }
     }
 }
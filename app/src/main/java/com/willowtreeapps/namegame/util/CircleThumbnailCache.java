@@ -0,0 +1,102 @@
+package com.willowtreeapps.namegame.util;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Memory cache of the final, circle-cropped thumbs, keyed by headshot id, thumb size and
+ * border color. A person seen again is drawn from here without decoding or transforming their
+ * headshot.</p>
+ * <p>Evicted thumbs go back to the {@link BitmapPool} to be drawn into again, unless a view
+ * still shows them. Views report the thumbs they show and drop through {@link #bind(Bitmap)} and
+ * {@link #unbind(Bitmap)}; a thumb evicted while bound is pooled once the last view drops it.</p>
+ * <p>Thread-safe; {@link CircleBorderTransform} fills it from Picasso's worker threads.</p>
+ */
+public class CircleThumbnailCache extends LruCache<String, Bitmap> {
+
+    @Nullable
+    private final BitmapPool pool;
+    /**
+     * The thumbs shown by views, by the number of views showing them
+     */
+    private final Map<Bitmap, Integer> bound = new IdentityHashMap<>();
+    /**
+     * The bound thumbs that were evicted, to pool once unbound
+     */
+    private final Set<Bitmap> evictedWhileBound =
+            Collections.newSetFromMap(new IdentityHashMap<Bitmap, Boolean>());
+
+    /**
+     * @param maxBytes Total size of the bitmaps to hold, in bytes
+     * @param pool Receives the evicted thumbs, if not null
+     */
+    public CircleThumbnailCache(int maxBytes, @Nullable BitmapPool pool) {
+        super(maxBytes);
+        this.pool = pool;
+    }
+
+    @NonNull
+    public static String key(@NonNull String headshotId, int size, int borderColor) {
+        return headshotId + '@' + size + '#' + Integer.toHexString(borderColor);
+    }
+
+    @Nullable
+    public Bitmap get(@NonNull String headshotId, int size, int borderColor) {
+        return get(key(headshotId, size, borderColor));
+    }
+
+    /**
+     * Marks thumb as shown by a view, so it is not pooled should it be evicted meanwhile
+     */
+    public void bind(@NonNull Bitmap thumb) {
+        synchronized (bound) {
+            Integer views = bound.get(thumb);
+            bound.put(thumb, views == null ? 1 : views + 1);
+        }
+    }
+
+    /**
+     * Marks thumb as no longer shown by a view that {@link #bind(Bitmap) bound} it, and pools it
+     * if it was evicted and no other view shows it
+     */
+    public void unbind(@NonNull Bitmap thumb) {
+        synchronized (bound) {
+            Integer views = bound.get(thumb);
+            if (views == null) return;
+            if (views > 1) {
+                bound.put(thumb, views - 1);
+                return;
+            }
+            bound.remove(thumb);
+            if (!evictedWhileBound.remove(thumb)) return;
+        }
+        if (pool != null)
+            pool.put(thumb);
+    }
+
+    @Override
+    protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+        // A replaced thumb may be on its way to a view, not yet bound, so only evicted ones are
+        // reused: the thumbs about to be shown are the most recently used
+        if (!evicted || pool == null) return;
+        synchronized (bound) {
+            if (bound.containsKey(oldValue)) {
+                evictedWhileBound.add(oldValue);
+                return;
+            }
+        }
+        pool.put(oldValue);
+    }
+
+    @Override
+    protected int sizeOf(String key, Bitmap value) {
+        return value.getRowBytes() * value.getHeight();
+    }
+}
@@ -0,0 +1,110 @@
+package com.willowtreeapps.namegame.util;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.squareup.picasso.MemoryPolicy;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.List;
+
+/**
+ * <p>Builds the Picasso request for a headshot, and warms the caches with the headshots of
+ * upcoming rounds.</p>
+ * <p>The finished thumbs are kept in a {@link CircleThumbnailCache} rather than in Picasso's
+ * memory cache, so a prefetched or previously shown headshot is available from
+ * {@link #cached(Person)} without going through Picasso at all.</p>
+ */
+public class HeadshotPrefetcher {
+
+    private static final String MIME_TYPE_JPEG = "image/jpeg";
+
+    @NonNull
+    private final Picasso picasso;
+    @NonNull
+    private final CircleThumbnailCache thumbnails;
+    @NonNull
+    private final BitmapPool pool;
+    private final int imageSize;
+    private final boolean rgb565;
+
+    /**
+     * @param imageSize Size of the square thumbs, in pixels
+     * @param rgb565 Whether to decode opaque headshots as RGB_565
+     */
+    public HeadshotPrefetcher(@NonNull Picasso picasso, @NonNull CircleThumbnailCache thumbnails,
+                              @NonNull BitmapPool pool, int imageSize, boolean rgb565) {
+        this.picasso = picasso;
+        this.thumbnails = thumbnails;
+        this.pool = pool;
+        this.imageSize = imageSize;
+        this.rgb565 = rgb565;
+    }
+
+    /**
+     * @return the finished thumb of person, if it is cached
+     */
+    @Nullable
+    public Bitmap cached(@NonNull Person person) {
+        String id = headshotIdOf(person);
+        return id == null ? null : thumbnails.get(id, imageSize, CircleBorderTransform.BORDER_COLOR);
+    }
+
+    /**
+     * @return the request for the headshot of person, resized and transformed for the thumbs
+     */
+    @NonNull
+    public RequestCreator request(@NonNull Person person) {
+        String id = headshotIdOf(person);
+        Headshot headshot = person.getHeadshot();
+        RequestCreator request = headshot == null ? picasso.load((String) null) :
+                // Lets HeadshotRequestHandler subsample without reading the bounds first
+                picasso.load(HeadshotRequestHandler.uriFor(urlOf(person),
+                        headshot.getWidth(),
+                        headshot.getHeight()));
+        if (rgb565 && headshot != null && MIME_TYPE_JPEG.equals(headshot.getMimeType())) {
+            // JPEGs have no alpha to lose
+            request.config(Bitmap.Config.RGB_565);
+        }
+        return request
+                // The finished thumbs are cached by thumbnails instead
+                .memoryPolicy(MemoryPolicy.NO_CACHE, MemoryPolicy.NO_STORE)
+                .resize(imageSize, imageSize)
+                .centerCrop()
+                .transform(new CircleBorderTransform(pool, thumbnails, id == null ? null :
+                        CircleThumbnailCache.key(id, imageSize, CircleBorderTransform.BORDER_COLOR)));
+    }
+
+    /**
+     * Loads the headshots of people into the memory and disk caches at low priority
+     */
+    public void prefetch(@NonNull List<Person> people) {
+        for (int i = 0, n = people.size(); i < n; i++) {
+            Person person = people.get(i);
+            if (urlOf(person) == null || cached(person) != null) continue;
+
+            request(person)
+                    .priority(Picasso.Priority.LOW)
+                    .fetch();
+        }
+    }
+
+    /**
+     * @return the id of the headshot, or its url when it has none
+     */
+    @Nullable
+    private static String headshotIdOf(Person person) {
+        Headshot headshot = person.getHeadshot();
+        if (headshot == null) return null;
+        return headshot.getId() != null ? headshot.getId() : headshot.getUrl();
+    }
+
+    @Nullable
+    private static String urlOf(Person person) {
+        return person.getHeadshot() == null ? null : Ui.urlPathWithScheme(person.getHeadshot().getUrl());
+    }
+}
@@ -0,0 +1,92 @@
+package com.willowtreeapps.namegame.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+
+import com.squareup.picasso.Downloader;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.Request;
+import com.squareup.picasso.RequestHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <p>Decodes headshots whose dimensions are known from the API, subsampled close to the size they
+ * are displayed at, and in the config of the request.</p>
+ * <p>Picasso's own network handler has to read the image bounds before it can pick an
+ * inSampleSize. Here the bounds come with the uri (see {@link #uriFor(String, int, int)}), so the
+ * headshot is decoded in one pass. Uris without bounds are left to Picasso.</p>
+ */
+public class HeadshotRequestHandler extends RequestHandler {
+
+    private static final String SIZE_FRAGMENT = "headshot-size=";
+
+    @NonNull
+    private final Downloader downloader;
+
+    public HeadshotRequestHandler(@NonNull Downloader downloader) {
+        this.downloader = downloader;
+    }
+
+    /**
+     * @return url annotated with the dimensions of the image, or url itself when they are unknown
+     */
+    public static String uriFor(String url, int width, int height) {
+        if (url == null || width <= 0 || height <= 0) return url;
+        // The fragment is not sent to the server, and is stripped before downloading
+        return url + '#' + SIZE_FRAGMENT + width + 'x' + height;
+    }
+
+    @Override
+    public boolean canHandleRequest(Request data) {
+        String fragment = data.uri == null ? null : data.uri.getFragment();
+        return fragment != null && fragment.startsWith(SIZE_FRAGMENT) && data.hasSize();
+    }
+
+    @Override
+    public Result load(Request request, int networkPolicy) throws IOException {
+        String size = request.uri.getFragment().substring(SIZE_FRAGMENT.length());
+        int x = size.indexOf('x');
+        int width;
+        int height;
+        try {
+            width = Integer.parseInt(size.substring(0, x));
+            height = Integer.parseInt(size.substring(x + 1));
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed headshot size: " + size);
+        }
+
+        Uri uri = request.uri.buildUpon().fragment(null).build();
+        Downloader.Response response = downloader.load(uri, networkPolicy);
+        InputStream stream = response.getInputStream();
+        if (stream == null) throw new IOException("No content for " + uri);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = inSampleSize(width, height, request.targetWidth, request.targetHeight);
+        if (request.config != null)
+            options.inPreferredConfig = request.config;
+
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeStream(stream, null, options);
+        } finally {
+            stream.close();
+        }
+        if (bitmap == null) throw new IOException("Failed to decode " + uri);
+        return new Result(bitmap, Picasso.LoadedFrom.NETWORK);
+    }
+
+    /**
+     * @return the largest power of two that keeps both dimensions at or above the target, so the
+     * final resize only ever scales down
+     */
+    static int inSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight)
+            sampleSize *= 2;
+        return sampleSize;
+    }
+}
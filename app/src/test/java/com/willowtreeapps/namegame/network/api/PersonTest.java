@@ -5,6 +5,7 @@ import android.os.Parcel;
 
 import com.google.gson.Gson;
 import com.willowtreeapps.namegame.BuildConfig;
+import com.willowtreeapps.namegame.network.api.model.ParcelablePerson;
 import com.willowtreeapps.namegame.network.api.model.Person;
 
 import org.junit.Assert;
@@ -67,13 +68,13 @@ public class PersonTest {
 
         //Write ourselves to the parcel
         Person person = gson.fromJson(testString, Person.class);
-        person.writeToParcel(parcel, 0);
+        new ParcelablePerson(person).writeToParcel(parcel, 0);
 
         // After you're done with writing, you need to reset the parcel for reading:
         parcel.setDataPosition(0);
 
         // Reconstruct object from parcel and asserts:
-        person = Person.CREATOR.createFromParcel(parcel);
+        person = ParcelablePerson.CREATOR.createFromParcel(parcel).getPerson();
 
         // Test name
         Assert.assertEquals("First name should match", "Joel", person.getFirstName());
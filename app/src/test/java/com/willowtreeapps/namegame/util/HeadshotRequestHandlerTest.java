@@ -0,0 +1,29 @@
+package com.willowtreeapps.namegame.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeadshotRequestHandlerTest {
+
+    @Test
+    public void should_subsample_down_to_target() throws Exception {
+        Assert.assertEquals(4, HeadshotRequestHandler.inSampleSize(1600, 1600, 340, 340));
+        Assert.assertEquals(8, HeadshotRequestHandler.inSampleSize(3000, 3000, 340, 340));
+    }
+
+    @Test
+    public void should_never_subsample_below_target() throws Exception {
+        Assert.assertEquals(1, HeadshotRequestHandler.inSampleSize(340, 340, 340, 340));
+        Assert.assertEquals(1, HeadshotRequestHandler.inSampleSize(600, 600, 340, 340));
+        // The shorter side bounds the sample size
+        Assert.assertEquals(2, HeadshotRequestHandler.inSampleSize(3000, 700, 340, 340));
+    }
+
+    @Test
+    public void should_only_annotate_known_sizes() throws Exception {
+        Assert.assertEquals("http://a/b.jpg#headshot-size=1600x1200",
+                HeadshotRequestHandler.uriFor("http://a/b.jpg", 1600, 1200));
+        Assert.assertEquals("http://a/b.jpg", HeadshotRequestHandler.uriFor("http://a/b.jpg", 0, 0));
+        Assert.assertNull(HeadshotRequestHandler.uriFor(null, 10, 10));
+    }
+}
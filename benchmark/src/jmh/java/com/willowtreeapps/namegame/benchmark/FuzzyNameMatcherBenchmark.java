@@ -0,0 +1,73 @@
+package com.willowtreeapps.namegame.benchmark;
+
+import com.willowtreeapps.namegame.core.gamelogic.FuzzyNameMatcher;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The cost of scoring a typed answer with one typo, which must fit in a frame, and of building the
+ * matcher. Names are made of random syllables, so nearly every full name is distinct
+ */
+@State(Scope.Thread)
+public class FuzzyNameMatcherBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "be", "ca", "da", "el", "fi", "ga", "ho", "is",
+            "jo", "ka", "li", "mo", "na", "or", "pe", "ri", "sa", "to", "vi"};
+
+    @Param({"1000", "50000"})
+    public int rosterSize;
+
+    private List<Person> roster;
+    private FuzzyNameMatcher matcher;
+    private String[] guesses;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        roster = new ArrayList<>(rosterSize);
+        for (int i = 0; i < rosterSize; i++) {
+            roster.add(new Person(String.valueOf(i), null, null, null,
+                    name(random, 2), name(random, 3), null, null));
+        }
+        matcher = FuzzyNameMatcher.of(roster);
+
+        guesses = new String[256];
+        targets = new int[guesses.length];
+        for (int i = 0; i < guesses.length; i++) {
+            targets[i] = random.nextInt(rosterSize);
+            Person person = roster.get(targets[i]);
+            StringBuilder guess = new StringBuilder(person.getFirstName() + " " + person.getLastName());
+            guess.deleteCharAt(1 + random.nextInt(guess.length() - 1));
+            guesses[i] = guess.toString();
+        }
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++)
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return name.toString();
+    }
+
+    @Benchmark
+    public boolean accepts() {
+        int i = next++ & (guesses.length - 1);
+        return matcher.accepts(guesses[i], targets[i]);
+    }
+
+    @Benchmark
+    public FuzzyNameMatcher build() {
+        return FuzzyNameMatcher.of(roster);
+    }
+}
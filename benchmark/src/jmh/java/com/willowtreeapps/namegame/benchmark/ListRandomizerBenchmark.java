@@ -0,0 +1,81 @@
+package com.willowtreeapps.namegame.benchmark;
+
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.PersonFilters;
+import com.willowtreeapps.namegame.core.gamelogic.RosterFilter;
+import com.willowtreeapps.namegame.core.gamelogic.RosterIndex;
+import com.willowtreeapps.namegame.core.gamelogic.WeightedSampler;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.simulator.SyntheticRoster;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ways a round is picked: from the whole roster, through a filter tested per visit, from a
+ * precomputed index of the eligible people, and by weight with the ineligible weighing nothing
+ */
+@State(Scope.Thread)
+public class ListRandomizerBenchmark {
+
+    private static final int NUMBER_OF_THUMBS = 6;
+    private static final RosterFilter ELIGIBLE = PersonFilters.firstNameContains("mat");
+
+    @Param({"100", "10000", "1000000"})
+    public int rosterSize;
+
+    /**
+     * Share of the roster accepted by the filter
+     */
+    @Param({"1.0", "0.1", "0.01"})
+    public double selectivity;
+
+    private List<Person> roster;
+    private ListRandomizer.ListFilter<Person> filter;
+    private int[] index;
+    private WeightedSampler weights;
+    private ListRandomizer randomizer;
+
+    @Setup
+    public void setUp() {
+        roster = SyntheticRoster.generate(rosterSize, selectivity, 42);
+        filter = new ListRandomizer.ListFilter<Person>() {
+            @Override
+            public boolean accept(Person item) {
+                return item.getFirstName().toLowerCase().contains("mat");
+            }
+        };
+        index = new RosterIndex(roster).index(ELIGIBLE);
+        int[] weights = new int[rosterSize];
+        for (int i = 0; i < index.length; i++)
+            weights[index[i]] = 1 << (i % 4);
+        this.weights = new WeightedSampler(weights);
+        randomizer = new ListRandomizer(new Random(7));
+    }
+
+    @Benchmark
+    public List<Person> pickN() {
+        return randomizer.pickN(roster, NUMBER_OF_THUMBS);
+    }
+
+    @Benchmark
+    public List<Person> pickN_filtered() {
+        return randomizer.pickN(roster, NUMBER_OF_THUMBS, filter);
+    }
+
+    @Benchmark
+    public List<Person> pickN_indexed() {
+        return randomizer.pickN(roster, index, NUMBER_OF_THUMBS);
+    }
+
+    @Benchmark
+    public List<Person> pickN_weighted() {
+        return randomizer.pickN(roster, weights, NUMBER_OF_THUMBS);
+    }
+}
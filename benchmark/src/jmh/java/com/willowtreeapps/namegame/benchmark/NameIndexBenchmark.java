@@ -0,0 +1,56 @@
+package com.willowtreeapps.namegame.benchmark;
+
+import com.willowtreeapps.namegame.core.gamelogic.NameIndex;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.simulator.SyntheticRoster;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * The cost of typing a name into the prefix index, per keystroke and per suggestion list, and of
+ * building the index on a roster load
+ */
+@State(Scope.Thread)
+public class NameIndexBenchmark {
+
+    private static final String TYPED = "mathilde s";
+
+    @Param({"1000", "50000"})
+    public int rosterSize;
+
+    private List<Person> roster;
+    private NameIndex.Cursor cursor;
+    private final int[] suggestions = new int[5];
+
+    @Setup
+    public void setUp() {
+        roster = SyntheticRoster.generate(rosterSize, 0.1, 42);
+        cursor = NameIndex.of(roster).newCursor();
+    }
+
+    /**
+     * Types the name a key at a time, reading the suggestions after each, then erases it
+     */
+    @Benchmark
+    public int typeAndErase() {
+        int suggested = 0;
+        for (int i = 0; i < TYPED.length(); i++) {
+            cursor.type(TYPED.charAt(i));
+            suggested += cursor.suggestions(suggestions);
+        }
+        while (cursor.length() > 0)
+            cursor.erase();
+        return suggested;
+    }
+
+    @Benchmark
+    public NameIndex build() {
+        return NameIndex.of(roster);
+    }
+}
@@ -0,0 +1,81 @@
+package com.willowtreeapps.namegame.benchmark;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.simulator.RosterApi;
+import com.willowtreeapps.namegame.simulator.SyntheticRoster;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A turn of each game mode: {@link GameLogic.PeopleLogic#next()}, then answering it with
+ * {@link GameLogic.PeopleLogic#onItemSelected(int)}
+ */
+@State(Scope.Thread)
+public class PeopleLogicBenchmark {
+
+    @Param({"STANDARD", "NO_GHOST", "MAT", "CHEAT", "REVERSE"})
+    public String mode;
+
+    @Param({"100", "10000", "1000000"})
+    public int rosterSize;
+
+    /**
+     * Share of the roster eligible for the NO_GHOST and MAT modes
+     */
+    @Param({"0.5", "0.01"})
+    public double selectivity;
+
+    private GameLogic.PeopleLogic peopleLogic;
+    private int pick;
+
+    @Setup
+    public void setUp() {
+        List<Person> roster = SyntheticRoster.generate(rosterSize, selectivity, 42);
+        ProfilesRepository repository = new ProfilesRepository(new RosterApi(roster));
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new Random(7)), repository);
+        if (!gameLogic.newGame(modeOf(mode)))
+            throw new IllegalStateException("Game did not start");
+        peopleLogic = gameLogic.getPeopleLogic();
+    }
+
+    @Benchmark
+    public GameLogic.PeopleLogic next() {
+        peopleLogic.next();
+        return peopleLogic;
+    }
+
+    @Benchmark
+    public boolean turn() {
+        peopleLogic.next();
+        // Cycles through the items rather than always answering correctly
+        peopleLogic.onItemSelected(pick = (pick + 1) % 6);
+        return peopleLogic.isCorrect();
+    }
+
+    private static int modeOf(String name) {
+        switch (name) {
+            case "STANDARD":
+                return GameLogic.Mode.STANDARD;
+            case "NO_GHOST":
+                return GameLogic.Mode.NO_GHOST;
+            case "MAT":
+                return GameLogic.Mode.MAT;
+            case "CHEAT":
+                return GameLogic.Mode.CHEAT;
+            case "REVERSE":
+                return GameLogic.Mode.REVERSE;
+            default:
+                throw new IllegalArgumentException("Unknown mode " + name);
+        }
+    }
+}
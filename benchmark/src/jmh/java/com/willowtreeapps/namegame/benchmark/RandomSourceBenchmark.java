@@ -0,0 +1,63 @@
+package com.willowtreeapps.namegame.benchmark;
+
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.SplitMix64;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.simulator.SyntheticRoster;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Concurrent sessions picking rounds, from one shared java.util.Random as the app did, or from
+ * their own split of a SplitMix64
+ */
+@Threads(4)
+public class RandomSourceBenchmark {
+
+    private static final int NUMBER_OF_THUMBS = 6;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        List<Person> roster;
+        Random random;
+        SplitMix64 root;
+
+        @Setup
+        public void setUp() {
+            roster = SyntheticRoster.generate(10000, 1.0, 42);
+            random = new Random(7);
+            root = new SplitMix64(7);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        ListRandomizer sharedRandom;
+        ListRandomizer splitRandom;
+
+        @Setup
+        public void setUp(Shared shared) {
+            sharedRandom = new ListRandomizer(shared.random);
+            synchronized (shared) {
+                splitRandom = new ListRandomizer(shared.root.split());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Person> pickN_sharedRandom(Shared shared, Session session) {
+        return session.sharedRandom.pickN(shared.roster, NUMBER_OF_THUMBS);
+    }
+
+    @Benchmark
+    public List<Person> pickN_split(Shared shared, Session session) {
+        return session.splitRandom.pickN(shared.roster, NUMBER_OF_THUMBS);
+    }
+}
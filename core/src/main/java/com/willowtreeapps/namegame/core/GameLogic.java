@@ -0,0 +1,450 @@
+package com.willowtreeapps.namegame.core;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.core.gamelogic.DifficultyWeights;
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.PersonFilters;
+import com.willowtreeapps.namegame.core.gamelogic.RecallScheduler;
+import com.willowtreeapps.namegame.core.gamelogic.RosterFilter;
+import com.willowtreeapps.namegame.core.gamelogic.RosterIndex;
+import com.willowtreeapps.namegame.core.history.HistoryStore;
+import com.willowtreeapps.namegame.core.history.RoundOutcome;
+import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.RosterDelta;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.util.ListenerRegistry;
+
+import java.util.List;
+
+/**
+ * Class that maintains state and logic of the game. Wraps the ProfileRepository where game logic is
+ * concerned. As such the game fragment should listen directly to this class in order for the game
+ * state to be "live". Listeners are notified on the thread of the ProfilesRepository events, or of
+ * the call to {@link #newGame(int)}, and may register and unregister from any thread.
+ * <p>The game of the app is one {@link GameSession}; more may play at once, see
+ * {@link #newSession(int)}.</p>
+ */
+public class GameLogic implements ProfilesRepository.Listener, ProfilesRepository.DeltaListener {
+    private final ProfilesRepository mProfilesRepository;
+    private final ListRandomizer mListRandomizer;
+    /**
+     * Splits into the randomizers of the sessions; kept apart from mListRandomizer, which the
+     * game of the app draws from on its own thread
+     */
+    private final ListRandomizer mSessionRandomizers;
+    /**
+     * What the player remembers of whom, shared by the sessions of the spaced mode
+     */
+    private volatile RecallScheduler mScheduler;
+    /**
+     * Where the outcome of every round answered goes, if anywhere
+     */
+    @Nullable
+    private final HistoryStore mHistory;
+    /**
+     * Equivalent to data in ProfileRepository is live
+     */
+    private volatile boolean mReadyToLoadGame;
+    /**
+     * Whether the game waits for more pages of the roster to fill its first round
+     */
+    private volatile boolean mWaitingForRoster;
+    private volatile int mMode;
+    /**
+     * The game of the app. Replaced by newGame on the main thread, and read on the thread of the
+     * ProfilesRepository events as pages arrive
+     */
+    private volatile GameSession mSession;
+    private final ListenerRegistry<Listener> listeners = new ListenerRegistry<>();
+    /**
+     * The roster shared by every session, along with the people eligible for the filtered modes.
+     * Rebuilt on each load of the ProfileRepository
+     */
+    private volatile RosterIndex mRosterIndex;
+    /**
+     * The weights of the people of mRosterIndex for the review mode, rebuilt along with it and
+     * updated on each answer recorded
+     */
+    private volatile DifficultyWeights mWeights;
+
+    private final static String ERROR_MESSAGE_PROFILES =
+            "Unable to begin game; data is stale or inaccessible";
+
+    private static final RosterFilter NO_GHOST =
+            PersonFilters.hasHeadshot().and(PersonFilters.headshotUrlContains("TEST").not());
+    private static final RosterFilter MAT = PersonFilters.firstNameContains("mat");
+
+    private static final ListenerRegistry.Event<Listener, PeopleLogic> LOAD_SUCCESS =
+            new ListenerRegistry.Event<Listener, PeopleLogic>() {
+                @Override
+                public void deliver(@NonNull Listener listener, PeopleLogic peopleLogic) {
+                    listener.onGameLogicLoadSuccess(peopleLogic);
+                }
+            };
+
+    private static final ListenerRegistry.Event<Listener, Throwable> LOAD_FAIL =
+            new ListenerRegistry.Event<Listener, Throwable>() {
+                @Override
+                public void deliver(@NonNull Listener listener, Throwable error) {
+                    listener.onGameLogicLoadFail(error);
+                }
+            };
+
+    public static final class Mode {
+        public static final int UNDEFINED   = -1; // Used to signify there is no current game in progress
+        public static final int STANDARD    = 0;
+        public static final int NO_GHOST    = 1;
+        public static final int MAT         = 2;
+        public static final int CHEAT       = 3;
+        public static final int REVERSE     = 4;
+        /**
+         * The name of a face is typed, see {@link GameSession#cursor()}. Items are selected by
+         * their position in the roster
+         */
+        public static final int TYPE_NAME   = 5;
+        /**
+         * The face to name is chosen by spaced repetition, see {@link RecallScheduler}
+         */
+        public static final int SPACED      = 6;
+        /**
+         * Faces are drawn by weight, favoring the people the player got wrong, see
+         * {@link DifficultyWeights}
+         */
+        public static final int REVIEW      = 7;
+    }
+
+    public GameLogic(@NonNull ListRandomizer listRandomizer,
+                     ProfilesRepository profilesRepository) {
+        this(listRandomizer, profilesRepository, new RecallScheduler());
+    }
+
+    public GameLogic(@NonNull ListRandomizer listRandomizer,
+                     ProfilesRepository profilesRepository,
+                     @NonNull RecallScheduler scheduler) {
+        this(listRandomizer, profilesRepository, scheduler, null);
+    }
+
+    public GameLogic(@NonNull ListRandomizer listRandomizer,
+                     ProfilesRepository profilesRepository,
+                     @NonNull RecallScheduler scheduler,
+                     @Nullable HistoryStore history) {
+        this.mListRandomizer = listRandomizer;
+        this.mSessionRandomizers = listRandomizer.split();
+        this.mProfilesRepository = profilesRepository;
+        this.mScheduler = scheduler;
+        this.mHistory = history;
+        mReadyToLoadGame = false;
+        mMode = Mode.UNDEFINED;
+        // The roster is indexed on its delta, which comes first
+        mProfilesRepository.registerDeltaListener(this);
+        mProfilesRepository.register(this);
+    }
+
+    /**
+     *
+     * @return whether the game was successfully initialized to a new game. If the data is not yet
+     * live, or is the first pages of the roster without enough people for the mode, then the game
+     * state must defer its reset
+     */
+    public boolean newGame(int mode) {
+        setMode(mode);
+        if (mode == Mode.UNDEFINED) {
+            // The game is undefined, so state need not be set/defined
+            return false;
+        }
+
+        if (mReadyToLoadGame) {
+            // The game then begins on the load of the page that fills a round
+            if (mWaitingForRoster = !canStart()) return false;
+            mSession.next();
+
+            // Emit the change of state to the listeners
+            listeners.dispatch(LOAD_SUCCESS, mSession);
+            return true;
+        } else {
+            // Emit the change of state to the listeners
+            listeners.dispatch(LOAD_FAIL, new Throwable("Unable to create new game"));
+            return false;
+        }
+    }
+
+    public int getMode() {
+        return mMode;
+    }
+
+    // Keep the implementation simple to avoid side-effects
+    protected final void setMode(int mode) {
+        if ((mMode = mode) != Mode.UNDEFINED)
+            mSession = new GameSession(this, mode, mListRandomizer);
+    }
+
+    /**
+     * Starts another game over the roster, independent of the game of the app and of the other
+     * sessions. It draws from its own split of the randomizer, so sessions may play on different
+     * threads.
+     * <p>Pre: {@link #networkLoadSuccess()} == true before the session's first
+     * {@link GameSession#next()}</p>
+     */
+    @NonNull
+    public GameSession newSession(int mode) {
+        ListRandomizer randomizer;
+        synchronized (mSessionRandomizers) {
+            randomizer = mSessionRandomizers.split();
+        }
+        return new GameSession(this, mode, randomizer);
+    }
+
+    /**
+     * @return the roster shared by the sessions, or null until it is loaded
+     */
+    @Nullable
+    public RosterIndex getRosterIndex() {
+        return mRosterIndex;
+    }
+
+    /**
+     * @return the recall history of the player, which the spaced mode picks from and records to
+     */
+    @NonNull
+    public RecallScheduler getScheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * Installs the recall history of the player in place of the current one, e.g. once it is read
+     * back from storage, and reweighs the roster by it. What was recorded to the current one is
+     * dropped
+     */
+    public void setScheduler(@NonNull RecallScheduler scheduler) {
+        mScheduler = scheduler;
+        RosterIndex roster = mRosterIndex;
+        if (roster != null) weigh(roster, scheduler);
+    }
+
+    /**
+     * @return the weights of the people of {@link #getRosterIndex()} for the review mode, or null
+     * until it is loaded
+     */
+    @Nullable
+    public DifficultyWeights getWeights() {
+        return mWeights;
+    }
+
+    /**
+     * Records the answer of the player about a person, for the modes that adapt to what they
+     * recall. Keeps the scheduler and the weights in step
+     */
+    public void recordAnswer(@Nullable String id, boolean correct) {
+        RecallScheduler scheduler = mScheduler;
+        synchronized (scheduler) {
+            scheduler.record(id, correct);
+            DifficultyWeights weights = mWeights;
+            if (weights != null) weights.update(id, scheduler.box(id));
+        }
+    }
+
+    /**
+     * @return the history of the rounds answered, with the stats of the player, or null if it is
+     * not kept
+     */
+    @Nullable
+    public HistoryStore getHistory() {
+        return mHistory;
+    }
+
+    /**
+     * Keeps the outcome of a round of any session in the history; only touches memory
+     */
+    void recordOutcome(@Nullable String personId, int mode, long latencyMillis, boolean correct) {
+        if (mHistory != null && personId != null)
+            mHistory.record(new RoundOutcome(personId, mode, latencyMillis, correct));
+    }
+
+    /**
+     * @return the filter of the people a mode plays, or null when it plays the whole roster
+     */
+    @Nullable
+    public static RosterFilter eligibility(int mode) {
+        switch (mode) {
+            case Mode.NO_GHOST:
+            case Mode.TYPE_NAME:
+            case Mode.SPACED:
+            case Mode.REVIEW:
+                return NO_GHOST;
+            case Mode.MAT:
+                return MAT;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * <p>Pre: {@link #networkLoadSuccess()} == true</p>
+     * @return
+     */
+    public PeopleLogic getPeopleLogic() {
+        return mSession;
+    }
+
+    /**
+     * @return the game of the app, for what only some modes offer, such as
+     * {@link GameSession#cursor()}; null until a mode is chosen
+     */
+    @Nullable
+    public GameSession getSession() {
+        return mSession;
+    }
+
+    public boolean fullyRevealItems() { return mSession != null && mSession.fullyRevealItems(); }
+
+    /**
+     * Tells the current session its round is on screen, see {@link GameSession#onRoundShown()}
+     */
+    public void onRoundShown() {
+        if (mSession != null) mSession.onRoundShown();
+    }
+
+    /**
+     * @return Whether the list of people has finished loading from the Network Module.
+     */
+    public boolean isReady() {
+        return mProfilesRepository.getResponseOutcome() != ProfilesRepository.ResponseOutcome.IN_PROGRESS;
+    }
+
+    /**
+     *
+     * @return true iff the response of network api was a success
+     */
+    public boolean networkLoadSuccess() {
+        return mProfilesRepository.getResponseOutcome() == ProfilesRepository.ResponseOutcome.SUCCESS;
+    }
+
+    // Allow for Listeners to this to be set up. Ui that depends of gameLogic should register here
+    public void register(@NonNull Listener listener) {
+        if (!listeners.add(listener)) throw new IllegalStateException("Listener is already registered.");
+
+        // Update listener if the data is alive
+        switch (mProfilesRepository.getResponseOutcome()) {
+            case ProfilesRepository.ResponseOutcome.SUCCESS:
+                // Unless the game waits for more pages of the roster
+                if (!mWaitingForRoster)
+                    listener.onGameLogicLoadSuccess(mSession);
+                break;
+
+            case ProfilesRepository.ResponseOutcome.FAIL:
+                listener.onGameLogicLoadFail(new Throwable(ERROR_MESSAGE_PROFILES));
+                break;
+        }
+    }
+
+    public void unregister(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Carries the cached filters of the previous roster over to the new one
+     */
+    @Override
+    public void onRosterChanged(@NonNull RosterDelta delta) {
+        RosterIndex current = mRosterIndex;
+        mRosterIndex = current == null ? new RosterIndex(delta.roster()) : current.update(delta);
+    }
+
+    // Implement Listener interface
+    @Override
+    public void onLoadSuccess(@NonNull List<Person> people) {
+        if (mRosterIndex == null || mRosterIndex.roster() != people)
+            mRosterIndex = new RosterIndex(people);
+        reweigh(mRosterIndex);
+
+        // The roster may arrive, e.g. from the snapshot, before a mode was chosen
+        if (mSession == null) {
+            mReadyToLoadGame = true;
+            return;
+        }
+
+        // The case the game was not already started
+        if (!mReadyToLoadGame || mWaitingForRoster) {
+            mReadyToLoadGame = true;
+            // The first pages of the roster may not hold enough people for the mode yet
+            if (mWaitingForRoster = !canStart()) return;
+            // Begin the game now...
+            mSession.next();
+        }
+        mReadyToLoadGame = true;
+
+        listeners.dispatch(LOAD_SUCCESS, mSession);
+    }
+
+    /**
+     * Weighs the people of a new roster, under the lock of the scheduler so no answer is lost
+     */
+    private void reweigh(@NonNull RosterIndex roster) {
+        DifficultyWeights weights = mWeights;
+        if (weights != null && weights.roster() == roster) return;
+        weigh(roster, mScheduler);
+    }
+
+    private void weigh(@NonNull RosterIndex roster, @NonNull RecallScheduler scheduler) {
+        synchronized (scheduler) {
+            mWeights = DifficultyWeights.of(roster, eligibility(Mode.REVIEW), scheduler);
+        }
+    }
+
+    /**
+     * A complete roster always starts the game; a partial one only once it fills a round
+     */
+    private boolean canStart() {
+        return !mProfilesRepository.isPartial() || mSession.canPlay(mRosterIndex);
+    }
+
+    @Override
+    public void onError(@NonNull Throwable error) {
+        // Profiles held from the snapshot stay playable
+        if (mProfilesRepository.getResponseOutcome() == ProfilesRepository.ResponseOutcome.FAIL) {
+            mReadyToLoadGame = false;
+            mWaitingForRoster = false;
+        }
+
+        listeners.dispatch(LOAD_FAIL, new Throwable(ERROR_MESSAGE_PROFILES));
+    }
+
+    /**
+     * A Union of logic for each of the modes
+     */
+    public interface PeopleLogic {
+        /**
+         * Updates State to "next", may consist of new names, thumbs
+         */
+        void next();
+
+        /**
+         * Item could be a person or a name
+         * @param index the index of the item relative to the sublist of names or thumbs
+         *
+         */
+        void onItemSelected(int index);
+        int correctItemIndex();
+        boolean isCorrect();
+
+        List<Person> currentThumbs();
+        List<Person> currentNames();
+
+        /**
+         * @return the thumbs of the rounds that {@link #next()} will move to, in order. Their
+         * headshots may be loaded ahead of time
+         */
+        List<Person> upcomingThumbs();
+
+        int numberOfPeople();
+    }
+
+    public interface Listener {
+        void onGameLogicLoadSuccess(@NonNull PeopleLogic peopleLogic);
+        void onGameLogicLoadFail(@NonNull Throwable error);
+    }
+}
+
+
@@ -0,0 +1,577 @@
+package com.willowtreeapps.namegame.core;
+
+import android.support.annotation.NonNull;
+
+import com.willowtreeapps.namegame.core.gamelogic.DifficultyWeights;
+import com.willowtreeapps.namegame.core.gamelogic.FuzzyNameMatcher;
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.NameIndex;
+import com.willowtreeapps.namegame.core.gamelogic.RosterFilter;
+import com.willowtreeapps.namegame.core.gamelogic.RosterIndex;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>One game in progress: its mode, its rounds and its own randomizer. All the sessions of a
+ * {@link GameLogic} share its immutable, indexed roster, so a session only holds its current and
+ * upcoming rounds, however large the roster is.</p>
+ * <p>Sessions follow reloads of the roster; rounds picked from a previous roster are dropped,
+ * unless the new one only appended people to it, as the pages of a load arrive. A
+ * session must be played by one thread at a time, but different sessions may play at once.</p>
+ */
+public class GameSession implements GameLogic.PeopleLogic {
+
+    /**
+     * Number of rounds picked ahead of the current one
+     */
+    private static final int ROUNDS_AHEAD = 2;
+    /**
+     * Number of people shown per round, in the reverse mode, the typed one, and the others
+     */
+    private static final int PEOPLE_PER_REVERSE_ROUND = 5;
+    private static final int PEOPLE_PER_TYPED_ROUND = 1;
+    private static final int PEOPLE_PER_ROUND = 6;
+
+    @NonNull
+    private final GameLogic mGameLogic;
+    private final int mMode;
+    @NonNull
+    private final ListRandomizer mListRandomizer;
+    @NonNull
+    private final GameLogic.PeopleLogic peopleLogic;
+    private boolean mFullyRevealItems;
+    /**
+     * When the current round was shown, see {@link #onRoundShown()}, and whether its outcome was
+     * recorded
+     */
+    private long mRoundStartNanos;
+    private boolean mAnswered;
+
+    GameSession(@NonNull GameLogic gameLogic, int mode, @NonNull ListRandomizer listRandomizer) {
+        this.mGameLogic = gameLogic;
+        this.mMode = mode;
+        this.mListRandomizer = listRandomizer;
+        switch (mode) {
+            case GameLogic.Mode.STANDARD:
+                peopleLogic = new StandardModePeopleLogic();
+                break;
+
+            case GameLogic.Mode.NO_GHOST:
+            case GameLogic.Mode.MAT:
+                peopleLogic = new FilteredPeopleLogic(GameLogic.eligibility(mode));
+                break;
+
+            case GameLogic.Mode.CHEAT:
+                peopleLogic = new CheatPeopleLogic();
+                break;
+
+            case GameLogic.Mode.REVERSE:
+                peopleLogic = new ReverseModePeopleLogic();
+                break;
+
+            case GameLogic.Mode.TYPE_NAME:
+                peopleLogic = new TypeNamePeopleLogic();
+                break;
+
+            case GameLogic.Mode.SPACED:
+                peopleLogic = new SpacedPeopleLogic();
+                break;
+
+            case GameLogic.Mode.REVIEW:
+                peopleLogic = new ReviewPeopleLogic();
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+    }
+
+    public int getMode() {
+        return mMode;
+    }
+
+    public boolean fullyRevealItems() { return mFullyRevealItems; }
+
+    /**
+     * @return whether roster holds enough people eligible for the mode to fill a round
+     */
+    public boolean canPlay(@NonNull RosterIndex roster) {
+        RosterFilter filter = GameLogic.eligibility(mMode);
+        int eligible = filter == null ? roster.size() : roster.index(filter).length;
+        return eligible >= peoplePerRound();
+    }
+
+    private int peoplePerRound() {
+        switch (mMode) {
+            case GameLogic.Mode.REVERSE:
+                return PEOPLE_PER_REVERSE_ROUND;
+            case GameLogic.Mode.TYPE_NAME:
+                return PEOPLE_PER_TYPED_ROUND;
+            default:
+                return PEOPLE_PER_ROUND;
+        }
+    }
+
+    /**
+     * <p>Pre: the mode is {@link GameLogic.Mode#TYPE_NAME} and {@link #next()} was called</p>
+     * @return the text typed for the current round, over the names of its roster. Cleared by
+     * {@link #next()}; a suggestion is answered with {@link #onItemSelected(int)} of its position
+     */
+    @NonNull
+    public NameIndex.Cursor cursor() {
+        NameIndex.Cursor cursor = typeNamePeopleLogic().mCursor;
+        if (cursor == null) throw new IllegalStateException("No round was started");
+        return cursor;
+    }
+
+    /**
+     * <p>Pre: the mode is {@link GameLogic.Mode#TYPE_NAME} and {@link #next()} was called</p>
+     * @return the person at position in the roster of the current round, such as a suggestion of
+     * {@link #cursor()}
+     */
+    @NonNull
+    public Person suggested(int position) {
+        TypeNamePeopleLogic logic = typeNamePeopleLogic();
+        if (logic.mRoster == null) throw new IllegalStateException("No round was started");
+        return logic.mRoster.get(position);
+    }
+
+    /**
+     * Answers the current round of the {@link GameLogic.Mode#TYPE_NAME} mode with the whole name
+     * typed, forgiving typos, nicknames and accents, see {@link FuzzyNameMatcher}
+     * @return whether the answer is correct, as then told by {@link #isCorrect()}
+     */
+    public boolean answer(@NonNull String typed) {
+        TypeNamePeopleLogic logic = typeNamePeopleLogic();
+        if (logic.mRoster == null) throw new IllegalStateException("No round was started");
+        logic.correct = logic.mRoster.fuzzyNames().accepts(typed, logic.mPosition);
+        mFullyRevealItems = true;
+        onAnswered();
+        return logic.correct;
+    }
+
+    @NonNull
+    private TypeNamePeopleLogic typeNamePeopleLogic() {
+        if (!(peopleLogic instanceof TypeNamePeopleLogic))
+            throw new IllegalStateException("Mode " + mMode + " is not typed");
+        return (TypeNamePeopleLogic) peopleLogic;
+    }
+
+    /**
+     * <p>Pre: the roster of the GameLogic is loaded</p>
+     */
+    @Override
+    public void next() {
+        peopleLogic.next();
+        mRoundStartNanos = System.nanoTime();
+        mAnswered = false;
+    }
+
+    /**
+     * Starts the clock of the current round over, as it is now on screen, so the latency recorded
+     * leaves out the loading of its headshots. Until then the clock runs from {@link #next()}
+     */
+    public void onRoundShown() {
+        if (!mAnswered) mRoundStartNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onItemSelected(int index) {
+        peopleLogic.onItemSelected(index);
+        onAnswered();
+    }
+
+    /**
+     * Records the outcome of the first answer of the round
+     */
+    private void onAnswered() {
+        if (mAnswered) return;
+        mAnswered = true;
+        // The reverse mode names one face; the others name one of the faces
+        Person answer = mMode == GameLogic.Mode.REVERSE ?
+                peopleLogic.currentThumbs().get(0) :
+                peopleLogic.currentNames().get(0);
+        mGameLogic.recordOutcome(answer.getId(), mMode,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mRoundStartNanos),
+                peopleLogic.isCorrect());
+    }
+
+    @Override
+    public int correctItemIndex() {
+        return peopleLogic.correctItemIndex();
+    }
+
+    @Override
+    public boolean isCorrect() {
+        return peopleLogic.isCorrect();
+    }
+
+    @Override
+    public List<Person> currentThumbs() {
+        return peopleLogic.currentThumbs();
+    }
+
+    @Override
+    public List<Person> currentNames() {
+        return peopleLogic.currentNames();
+    }
+
+    @Override
+    public List<Person> upcomingThumbs() {
+        return peopleLogic.upcomingThumbs();
+    }
+
+    @Override
+    public int numberOfPeople() {
+        return peopleLogic.numberOfPeople();
+    }
+
+    @NonNull
+    private RosterIndex roster() {
+        RosterIndex roster = mGameLogic.getRosterIndex();
+        if (roster == null) throw new IllegalStateException("The roster is not loaded");
+        return roster;
+    }
+
+    private class StandardModePeopleLogic implements GameLogic.PeopleLogic {
+        protected final int NUMBER_OF_THUMBS  = PEOPLE_PER_ROUND;
+        protected final int NUMBER_OF_NAMES   = 1;
+
+        protected List<Person> mThumbs;
+        protected List<Person> mNames = new ArrayList<>(NUMBER_OF_NAMES);
+        protected int mNumberOfPeople;
+        protected int correctIndex;
+        protected boolean correct;
+        /**
+         * Rounds picked ahead of time, so their headshots can be prefetched
+         */
+        private final ArrayDeque<Round> mUpcoming = new ArrayDeque<>(ROUNDS_AHEAD);
+        {
+            mNames.add(null);
+        }
+
+        @Override
+        public void next() {
+            RosterIndex roster = roster();
+            Round round = mUpcoming.poll();
+            // Rounds picked from a previous roster are dropped, unless it only grew since
+            if (round == null || !roster.extendsRoster(round.roster)) {
+                mUpcoming.clear();
+                round = newRound(roster);
+            }
+            mThumbs = round.thumbs;
+            mNumberOfPeople = mThumbs.size();
+            mNames.set(0, mThumbs.get(correctIndex = round.correctIndex));
+            mFullyRevealItems = false;
+
+            while (mUpcoming.size() < ROUNDS_AHEAD)
+                mUpcoming.add(newRound(roster));
+        }
+
+        /**
+         * @return the people of this mode for one round
+         */
+        protected List<Person> pickThumbs(RosterIndex roster) {
+            return mListRandomizer.pickN(roster.roster(), NUMBER_OF_THUMBS);
+        }
+
+        protected Round newRound(RosterIndex roster) {
+            List<Person> thumbs = pickThumbs(roster);
+            if (thumbs.isEmpty()) throw new IllegalStateException("Nobody to play in mode " + mMode);
+            return new Round(roster, thumbs, mListRandomizer.nextInt(thumbs.size()));
+        }
+
+        @Override
+        public List<Person> upcomingThumbs() {
+            List<Person> people = new ArrayList<>(ROUNDS_AHEAD * NUMBER_OF_THUMBS);
+            for (Round round : mUpcoming)
+                people.addAll(round.thumbs);
+            return people;
+        }
+
+        @Override
+        public void onItemSelected(int index) {
+            correct = index < mNumberOfPeople &&
+                    sameId(mThumbs.get(index).getId(), mNames.get(0).getId());
+            mFullyRevealItems = true;
+        }
+
+        @Override
+        public int correctItemIndex() {
+            return correctIndex;
+        }
+
+        @Override
+        public boolean isCorrect() {
+            return correct;
+        }
+
+        @Override
+        public List<Person> currentThumbs() {
+            return mThumbs;
+        }
+
+        @Override
+        public List<Person> currentNames() {
+            return mNames;
+        }
+
+        @Override
+        public int numberOfPeople() {
+            return mNumberOfPeople;
+        }
+    }
+
+    /**
+     * Plays only the people accepted by a filter. The filter is evaluated once per roster load, and
+     * shared by every session, so a turn costs the same as in the standard mode
+     */
+    private class FilteredPeopleLogic extends StandardModePeopleLogic {
+        private final RosterFilter filter;
+
+        FilteredPeopleLogic(RosterFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        protected List<Person> pickThumbs(RosterIndex roster) {
+            return mListRandomizer.pickN(roster.roster(),
+                    roster.index(filter),
+                    NUMBER_OF_THUMBS);
+        }
+    }
+
+    /**
+     * Records each first answer of a round to the GameLogic, for the modes that adapt to what the
+     * player recalls
+     */
+    private abstract class RecordingPeopleLogic extends FilteredPeopleLogic {
+        private boolean recorded;
+
+        RecordingPeopleLogic() {
+            super(GameLogic.eligibility(mMode));
+        }
+
+        @Override
+        public void next() {
+            super.next();
+            recorded = false;
+        }
+
+        @Override
+        public void onItemSelected(int index) {
+            super.onItemSelected(index);
+            if (!recorded) {
+                recorded = true;
+                mGameLogic.recordAnswer(mNames.get(0).getId(), correct);
+            }
+        }
+    }
+
+    /**
+     * Names the person the scheduler picks, among faces of the eligible people, so the people the
+     * player misses come back sooner
+     */
+    private class SpacedPeopleLogic extends RecordingPeopleLogic {
+        @Override
+        protected Round newRound(RosterIndex roster) {
+            int position = mGameLogic.getScheduler().pick(roster, GameLogic.eligibility(mMode),
+                    mListRandomizer);
+            String id = roster.id(position);
+            List<Person> thumbs = new ArrayList<>(pickThumbs(roster));
+            for (int i = 0; i < thumbs.size(); i++) {
+                if (sameId(thumbs.get(i).getId(), id)) return new Round(roster, thumbs, i);
+            }
+            // Not among the faces picked, so it takes the place of one
+            int correctIndex = mListRandomizer.nextInt(thumbs.size());
+            thumbs.set(correctIndex, roster.get(position));
+            return new Round(roster, thumbs, correctIndex);
+        }
+    }
+
+    /**
+     * Draws the faces by their difficulty weights, so the people the player got wrong show up more
+     * often, together. The first face drawn is the one to name
+     */
+    private class ReviewPeopleLogic extends RecordingPeopleLogic {
+        @Override
+        protected Round newRound(RosterIndex roster) {
+            DifficultyWeights weights = mGameLogic.getWeights();
+            // The weights follow the roster of the GameLogic, which may already be a newer one
+            if (weights == null || weights.roster() != roster) return super.newRound(roster);
+            // Too few people weigh anything to fill a round by weight
+            if (weights.sampler().positive() < NUMBER_OF_THUMBS) return super.newRound(roster);
+            List<Person> thumbs = new ArrayList<>(mListRandomizer.pickN(roster.roster(),
+                    weights.sampler(),
+                    NUMBER_OF_THUMBS));
+            int correctIndex = mListRandomizer.nextInt(thumbs.size());
+            Collections.swap(thumbs, 0, correctIndex);
+            return new Round(roster, thumbs, correctIndex);
+        }
+    }
+
+    /**
+     * An enhanced alternative would be to keep the behavior of the base class intact,
+     * and adapt the 'cheating' behavior in the UI instead
+     */
+    private class CheatPeopleLogic extends StandardModePeopleLogic {
+        @Override
+        public void next() {
+            super.next();
+            // The answer is always the top-left corner
+            mNames.set(0, mThumbs.get(correctIndex = 0));
+        }
+    }
+
+    private class ReverseModePeopleLogic implements GameLogic.PeopleLogic {
+        protected final int NUMBER_OF_THUMBS  = 1;
+        protected final int NUMBER_OF_NAMES   = PEOPLE_PER_REVERSE_ROUND;
+
+        protected List<Person> mThumbs = new ArrayList<>(NUMBER_OF_THUMBS);
+        protected List<Person> mNames;
+        protected int mNumberOfPeople;
+        protected int correctIndex;
+        protected boolean correct;
+
+        {
+            mThumbs.add(null);
+        }
+
+        @Override
+        public void next() {
+            mNames = mListRandomizer.pickN(roster().roster(), NUMBER_OF_NAMES);
+            mNumberOfPeople = mNames.size();
+            mThumbs.set(0, mNames.get(correctIndex = mListRandomizer.nextInt(mNumberOfPeople)));
+        }
+
+        @Override
+        public void onItemSelected(int index) {
+            correct = index == correctIndex;
+        }
+
+        @Override
+        public List<Person> upcomingThumbs() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int correctItemIndex() {
+            return correctIndex;
+        }
+
+        @Override
+        public boolean isCorrect() {
+            return correct;
+        }
+
+        @Override
+        public List<Person> currentThumbs() {
+            return mThumbs;
+        }
+
+        @Override
+        public List<Person> currentNames() {
+            return mNames;
+        }
+
+        @Override
+        public int numberOfPeople() {
+            return mNumberOfPeople;
+        }
+    }
+
+    /**
+     * Shows one face, whose name is typed. Items are selected by their position in the roster, as
+     * suggested by the cursor over its names
+     */
+    private class TypeNamePeopleLogic implements GameLogic.PeopleLogic {
+        private final List<Person> mThumbs = new ArrayList<>(PEOPLE_PER_TYPED_ROUND);
+        private RosterIndex mRoster;
+        private NameIndex.Cursor mCursor;
+        private int mPosition;
+        private boolean correct;
+
+        {
+            mThumbs.add(null);
+        }
+
+        @Override
+        public void next() {
+            RosterIndex roster = roster();
+            if (roster != mRoster) {
+                mRoster = roster;
+                mCursor = roster.names().newCursor();
+            } else {
+                mCursor.clear();
+            }
+            int[] eligible = roster.index(GameLogic.eligibility(mMode));
+            if (eligible.length == 0) throw new IllegalStateException("Nobody has a face to name");
+            mPosition = eligible[mListRandomizer.nextInt(eligible.length)];
+            mThumbs.set(0, roster.get(mPosition));
+            correct = false;
+            mFullyRevealItems = false;
+        }
+
+        @Override
+        public void onItemSelected(int position) {
+            correct = position == mPosition || position >= 0 && position < mRoster.size() &&
+                    sameId(mRoster.get(position).getId(), mThumbs.get(0).getId());
+            mFullyRevealItems = true;
+        }
+
+        @Override
+        public int correctItemIndex() {
+            return mPosition;
+        }
+
+        @Override
+        public boolean isCorrect() {
+            return correct;
+        }
+
+        @Override
+        public List<Person> currentThumbs() {
+            return mThumbs;
+        }
+
+        @Override
+        public List<Person> currentNames() {
+            return mThumbs;
+        }
+
+        @Override
+        public List<Person> upcomingThumbs() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int numberOfPeople() {
+            return PEOPLE_PER_TYPED_ROUND;
+        }
+    }
+
+    // Null-safe, like TextUtils.equals, without tying the game logic to the Android runtime
+    private static boolean sameId(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * A round picked ahead of time, along with the roster it was picked from
+     */
+    private static final class Round {
+        final RosterIndex roster;
+        final List<Person> thumbs;
+        final int correctIndex;
+
+        Round(RosterIndex roster, List<Person> thumbs, int correctIndex) {
+            this.roster = roster;
+            this.thumbs = thumbs;
+            this.correctIndex = correctIndex;
+        }
+    }
+}
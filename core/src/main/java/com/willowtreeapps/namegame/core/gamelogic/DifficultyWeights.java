@@ -0,0 +1,80 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * <p>Weighs the people of one roster by how poorly the player recalls them, from the boxes of a
+ * {@link RecallScheduler}: those missed last weigh the most, those never asked come next, and
+ * those recalled again and again the least. The people a filter rejects weigh nothing.</p>
+ * <p>Built in O(n) for each roster, then kept in step with the scheduler by
+ * {@link #update(String, int)}, in O(log n) per answer.</p>
+ */
+public final class DifficultyWeights {
+
+    /**
+     * Weight by box; the boxes past the last weigh as the last
+     */
+    private static final int[] BY_BOX = {8, 4, 2, 1};
+    private static final int UNSEEN = 2;
+
+    @NonNull
+    private final RosterIndex roster;
+    @Nullable
+    private final BitSet eligible;
+    @NonNull
+    private final WeightedSampler sampler;
+
+    private DifficultyWeights(@NonNull RosterIndex roster, @Nullable BitSet eligible,
+                              @NonNull WeightedSampler sampler) {
+        this.roster = roster;
+        this.eligible = eligible;
+        this.sampler = sampler;
+    }
+
+    /**
+     * @param filter the people to weigh, or null for everyone
+     */
+    @NonNull
+    public static DifficultyWeights of(@NonNull RosterIndex roster, @Nullable RosterFilter filter,
+                                       @NonNull RecallScheduler scheduler) {
+        BitSet eligible = filter == null ? null : roster.bits(filter);
+        int[] weights = new int[roster.size()];
+        synchronized (scheduler) {
+            for (int i = 0; i < weights.length; i++) {
+                if (eligible == null || eligible.get(i))
+                    weights[i] = weight(scheduler.box(roster.id(i)));
+            }
+        }
+        return new DifficultyWeights(roster, eligible, new WeightedSampler(weights));
+    }
+
+    /**
+     * @param box the box of a person, or -1 if they were never asked
+     */
+    static int weight(int box) {
+        return box < 0 ? UNSEEN : BY_BOX[Math.min(box, BY_BOX.length - 1)];
+    }
+
+    @NonNull
+    public RosterIndex roster() {
+        return roster;
+    }
+
+    @NonNull
+    public WeightedSampler sampler() {
+        return sampler;
+    }
+
+    /**
+     * Reweighs the person with id, now in box. Ignored if they are not in the roster or are not
+     * eligible
+     */
+    public void update(@Nullable String id, int box) {
+        int position = roster.positionOf(id);
+        if (position >= 0 && (eligible == null || eligible.get(position)))
+            sampler.set(position, weight(box));
+    }
+}
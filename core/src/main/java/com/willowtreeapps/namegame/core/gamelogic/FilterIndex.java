@@ -0,0 +1,33 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import java.util.BitSet;
+
+/**
+ * Materializes the positions accepted by a filter, as evaluated by {@link RosterIndex}, as a
+ * compact array, so the filter runs once per roster rather than once per pick
+ */
+public final class FilterIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * @return the positions of the set bits, in ascending order
+     */
+    @NonNull
+    public static int[] fromBits(@NonNull BitSet bits) {
+        int count = bits.cardinality();
+        if (count == 0) return EMPTY;
+
+        int[] index = new int[count];
+        int n = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1))
+            index[n++] = i;
+        return index;
+    }
+
+    private FilterIndex() {
+        throw new AssertionError("No instances.");
+    }
+}
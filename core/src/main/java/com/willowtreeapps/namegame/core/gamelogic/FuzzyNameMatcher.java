@@ -0,0 +1,314 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Matches typed names to the people of one roster, forgiving typos, nicknames and
+ * transliteration. Names are reduced to a canonical form: transliterated to Latin letters without
+ * accents, in lower case, with a known nickname replaced by the formal first name. The distinct
+ * canonical full names are kept in a BK-tree, so a guess is compared to the few names within reach
+ * of its edit distance instead of to every person.</p>
+ * <p>Built once per roster, see {@link RosterIndex#fuzzyNames()}, and immutable, so it may be
+ * queried from any thread.</p>
+ */
+public final class FuzzyNameMatcher {
+
+    private static final int NONE = -1;
+
+    /**
+     * Nicknames and the formal first name they stand for
+     */
+    private static final Map<String, String> NICKNAMES = new HashMap<>();
+
+    static {
+        String[][] names = {
+                {"abby", "abigail"}, {"al", "albert"}, {"alex", "alexander"}, {"andy", "andrew"},
+                {"ben", "benjamin"}, {"beth", "elizabeth"}, {"bill", "william"}, {"billy", "william"},
+                {"bob", "robert"}, {"bobby", "robert"}, {"cathy", "catherine"}, {"charlie", "charles"},
+                {"chris", "christopher"}, {"chuck", "charles"}, {"dan", "daniel"}, {"danny", "daniel"},
+                {"dave", "david"}, {"ed", "edward"}, {"eddie", "edward"}, {"fred", "frederick"},
+                {"greg", "gregory"}, {"jack", "john"}, {"jake", "jacob"}, {"jen", "jennifer"},
+                {"jenny", "jennifer"}, {"jim", "james"}, {"jimmy", "james"}, {"joe", "joseph"},
+                {"johnny", "john"}, {"jon", "jonathan"}, {"kate", "katherine"}, {"katie", "katherine"},
+                {"ken", "kenneth"}, {"larry", "lawrence"}, {"liz", "elizabeth"}, {"matt", "matthew"},
+                {"meg", "margaret"}, {"mike", "michael"}, {"nate", "nathan"}, {"nick", "nicholas"},
+                {"pam", "pamela"}, {"pat", "patrick"}, {"peggy", "margaret"}, {"pete", "peter"},
+                {"rich", "richard"}, {"rick", "richard"}, {"rob", "robert"}, {"ron", "ronald"},
+                {"sam", "samuel"}, {"steve", "steven"}, {"sue", "susan"}, {"ted", "edward"},
+                {"tim", "timothy"}, {"tom", "thomas"}, {"tony", "anthony"}, {"will", "william"},
+        };
+        for (String[] name : names)
+            NICKNAMES.put(name[0], name[1]);
+    }
+
+    // The BK-tree, with the children of a node linked through nextSibling
+    @NonNull
+    private final String[] terms;
+    @NonNull
+    private final int[] firstChild;
+    @NonNull
+    private final int[] nextSibling;
+    /**
+     * The distance of each node to its parent
+     */
+    @NonNull
+    private final int[] edge;
+    /**
+     * The people of term i are people[peopleStart[i]] to people[peopleStart[i + 1]] excluded
+     */
+    @NonNull
+    private final int[] peopleStart;
+    @NonNull
+    private final int[] people;
+    /**
+     * The term of each position of the roster, or NONE for the nameless
+     */
+    @NonNull
+    private final int[] termOf;
+
+    private FuzzyNameMatcher(@NonNull String[] terms, @NonNull int[] firstChild,
+                             @NonNull int[] nextSibling, @NonNull int[] edge,
+                             @NonNull int[] peopleStart, @NonNull int[] people,
+                             @NonNull int[] termOf) {
+        this.terms = terms;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.edge = edge;
+        this.peopleStart = peopleStart;
+        this.people = people;
+        this.termOf = termOf;
+    }
+
+    @NonNull
+    public static FuzzyNameMatcher of(@NonNull List<Person> roster) {
+        int size = roster.size();
+        ColumnarRoster columns = roster instanceof ColumnarRoster ? (ColumnarRoster) roster : null;
+
+        // Distinct canonical names, and the term of each person
+        Map<String, Integer> termIndex = new HashMap<>();
+        String[] terms = new String[size];
+        int[] termOf = new int[size];
+        int[] counts = new int[size];
+        int termCount = 0;
+        for (int i = 0; i < size; i++) {
+            String firstName;
+            String lastName;
+            if (columns != null) {
+                firstName = columns.firstName(i);
+                lastName = columns.lastName(i);
+            } else {
+                Person person = roster.get(i);
+                firstName = person.getFirstName();
+                lastName = person.getLastName();
+            }
+            String name = canonical((firstName == null ? "" : firstName) + ' ' +
+                    (lastName == null ? "" : lastName));
+            if (name.isEmpty()) {
+                termOf[i] = NONE;
+                continue;
+            }
+            Integer term = termIndex.get(name);
+            if (term == null) {
+                term = termCount;
+                termIndex.put(name, term);
+                terms[termCount++] = name;
+            }
+            termOf[i] = term;
+            counts[term]++;
+        }
+        terms = Arrays.copyOf(terms, termCount);
+
+        int[] peopleStart = new int[termCount + 1];
+        for (int term = 0; term < termCount; term++)
+            peopleStart[term + 1] = peopleStart[term] + counts[term];
+        int[] people = new int[peopleStart[termCount]];
+        int[] filled = Arrays.copyOf(peopleStart, termCount);
+        for (int i = 0; i < size; i++) {
+            if (termOf[i] != NONE)
+                people[filled[termOf[i]]++] = i;
+        }
+
+        int[] firstChild = new int[termCount];
+        int[] nextSibling = new int[termCount];
+        int[] edge = new int[termCount];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        Levenshtein levenshtein = new Levenshtein();
+        for (int term = 1; term < termCount; term++) {
+            int node = 0;
+            while (true) {
+                int distance = levenshtein.distance(terms[term], terms[node]);
+                int child = firstChild[node];
+                while (child != NONE && edge[child] != distance)
+                    child = nextSibling[child];
+                if (child == NONE) {
+                    edge[term] = distance;
+                    nextSibling[term] = firstChild[node];
+                    firstChild[node] = term;
+                    break;
+                }
+                node = child;
+            }
+        }
+        return new FuzzyNameMatcher(terms, firstChild, nextSibling, edge, peopleStart, people, termOf);
+    }
+
+    /**
+     * @return text transliterated to lower case Latin letters without accents, its words separated
+     * by one space, and a known nickname as first word replaced by the formal name
+     */
+    @NonNull
+    public static String canonical(@NonNull String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        int firstWordEnd = NONE;
+        for (int i = 0; i < text.length(); i++) {
+            char c = NameIndex.fold(text.charAt(i));
+            if (Character.isWhitespace(c) || c == '-' || c == '.') {
+                if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ') {
+                    if (firstWordEnd == NONE) firstWordEnd = builder.length();
+                    builder.append(' ');
+                }
+                continue;
+            }
+            switch (c) {
+                case '\u00DF': // sharp s
+                    builder.append("ss");
+                    break;
+                case '\u00E6': // ash
+                    builder.append("ae");
+                    break;
+                case '\u0153': // oe
+                    builder.append("oe");
+                    break;
+                case '\u00FE': // thorn
+                    builder.append("th");
+                    break;
+                default:
+                    if (Character.isLetterOrDigit(c) || c == '\'') builder.append(c);
+            }
+        }
+        int length = builder.length();
+        if (length > 0 && builder.charAt(length - 1) == ' ') builder.setLength(length - 1);
+        if (firstWordEnd == NONE || firstWordEnd > builder.length()) firstWordEnd = builder.length();
+
+        String formal = NICKNAMES.get(builder.substring(0, firstWordEnd));
+        if (formal != null) builder.replace(0, firstWordEnd, formal);
+        return builder.toString();
+    }
+
+    /**
+     * @return the edit distance allowed for a canonical guess of the given length
+     */
+    static int tolerance(int length) {
+        return length < 5 ? 0 : length < 10 ? 1 : length < 16 ? 2 : 3;
+    }
+
+    /**
+     * Fills out with the roster positions of the people whose names are the closest to guess,
+     * within its tolerance
+     * @return the number of positions written, at most out.length
+     */
+    public int closest(@NonNull String guess, @NonNull int[] out) {
+        int[] closest = closestTerms(canonical(guess));
+        int written = 0;
+        for (int i = 0; i < closest.length && written < out.length; i++) {
+            int term = closest[i];
+            for (int p = peopleStart[term]; p < peopleStart[term + 1] && written < out.length; p++)
+                out[written++] = people[p];
+        }
+        return written;
+    }
+
+    /**
+     * @return whether guess names the person at position: their name is within the tolerance of
+     * the guess, and nobody's is closer
+     */
+    public boolean accepts(@NonNull String guess, int position) {
+        int term = termOf[position];
+        if (term == NONE) return false;
+        String canonical = canonical(guess);
+        if (canonical.equals(terms[term])) return true;
+        for (int closest : closestTerms(canonical)) {
+            if (closest == term) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the terms at the least distance from canonical, if within its tolerance
+     */
+    @NonNull
+    private int[] closestTerms(@NonNull String canonical) {
+        if (terms.length == 0) return new int[0];
+        int tolerance = tolerance(canonical.length());
+        Levenshtein levenshtein = new Levenshtein();
+
+        // Nothing past the tolerance is collected
+        int best = tolerance;
+        int[] found = new int[4];
+        int foundCount = 0;
+
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = levenshtein.distance(canonical, terms[node]);
+            if (distance < best) {
+                best = distance;
+                foundCount = 0;
+            }
+            if (distance == best) {
+                if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+                found[foundCount++] = node;
+            }
+            // By the triangle inequality, only children at an edge within reach may be as close
+            int reach = best;
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (Math.abs(edge[child] - distance) <= reach) {
+                    if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = child;
+                }
+            }
+        }
+        return Arrays.copyOf(found, foundCount);
+    }
+
+    /**
+     * Edit distance with two reusable rows
+     */
+    private static final class Levenshtein {
+        private int[] previous = new int[32];
+        private int[] current = new int[32];
+
+        int distance(String a, String b) {
+            int n = b.length();
+            if (previous.length <= n) {
+                previous = new int[n + 1];
+                current = new int[n + 1];
+            }
+            for (int j = 0; j <= n; j++)
+                previous[j] = j;
+            for (int i = 1; i <= a.length(); i++) {
+                current[0] = i;
+                char c = a.charAt(i - 1);
+                for (int j = 1; j <= n; j++) {
+                    int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                    current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                }
+                int[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+            return previous[n];
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>Picks random items out of a list without copying the list.</p>
+ * <p>Unfiltered picks use Floyd's algorithm, so a pick of n items costs O(n^2), for the handful
+ * of a round, regardless of the size of the list. Filtered picks run a partial Fisher-Yates
+ * shuffle over an index permutation that is kept between calls, so only the items that are
+ * visited are tested against the filter.</p>
+ * <p>Not thread-safe; the permutation is shared between calls. Each thread or game session
+ * should use its own {@link #split()}, which also has its own stream of random numbers.</p>
+ */
+public class ListRandomizer {
+    private final static ListFilter NO_FILTER = new ListFilter() {
+        @Override
+        public boolean accept(Object item) {
+            return true;
+        }
+    };
+
+    @NonNull
+    private final RandomSource random;
+
+    /**
+     * Reusable permutation of [0, permutationSize), used by the filtered picks. Any ordering of it
+     * is a valid starting point for a partial Fisher-Yates shuffle, so it is never reset
+     */
+    private int[] permutation = new int[0];
+    private int permutationSize;
+
+    public ListRandomizer(@NonNull RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Draws from random, which is shared with its other users
+     */
+    public ListRandomizer(@NonNull Random random) {
+        this(new JavaUtilRandom(random));
+    }
+
+    /**
+     * @return a randomizer that is independent of this one, to be used by another thread
+     */
+    @NonNull
+    public ListRandomizer split() {
+        return new ListRandomizer(random.split());
+    }
+
+    @NonNull
+    public <T> T pickOne(@NonNull List<T> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    /**
+     * @return n distinct items of list in random order, or list itself when it holds exactly n
+     * items. At most list.size() items are returned
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T> List<T> pickN(@NonNull List<T> list, int n) { return pickN(list, n, NO_FILTER); }
+
+    /**
+     * @return up to n distinct items of list that are accepted by filter, in random order. Fewer
+     * than n items are returned when the list does not hold n acceptable items
+     */
+    @NonNull
+    public <T> List<T> pickN(@NonNull List<T> list, int n, ListFilter<T> filter) {
+        // Only the whole list is known to be acceptable as it is
+        if (list.size() == n && filter == NO_FILTER) return list;
+        if (n <= 0) return Collections.emptyList();
+        n = Math.min(n, list.size());
+
+        List<T> picks = new ArrayList<>(n);
+        if (filter == NO_FILTER) {
+            int[] indices = new int[n];
+            sampleIndices(list.size(), n, indices);
+            for (int i = 0; i < n; i++)
+                picks.add(list.get(indices[i]));
+            return picks;
+        }
+
+        int size = list.size();
+        int[] order = permutation(size);
+        T item;
+        // Shuffle the prefix [0, i) of the permutation until n acceptable items were drawn
+        for (int i = 0; i < size && picks.size() < n; i++) {
+            swap(order, i, i + random.nextInt(size - i));
+            item = list.get(order[i]);
+            if (filter.accept(item)) picks.add(item);
+        }
+        return picks;
+    }
+
+    /**
+     * Picks from a precomputed set of eligible items, e.g. {@link RosterIndex#index(RosterFilter)}.
+     * Costs O(n^2) no matter how many items of list are eligible, and leaves index untouched.
+     *
+     * @param index positions of the eligible items of list
+     * @return up to n distinct items of list, at positions drawn from index, in random order
+     */
+    @NonNull
+    public <T> List<T> pickN(@NonNull List<T> list, @NonNull int[] index, int n) {
+        n = Math.min(n, index.length);
+        if (n <= 0) return Collections.emptyList();
+
+        int[] positions = new int[n];
+        sampleIndices(index.length, n, positions);
+        List<T> picks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            picks.add(list.get(index[positions[i]]));
+        return picks;
+    }
+
+    /**
+     * Picks with probability proportional to weight, without replacement: each item is drawn in
+     * turn among those not drawn yet. Costs O(n log size) no matter how the weight is spread.
+     *
+     * @param weights the weight of each position of list; zero for the items never to pick. Drawn
+     *                items weigh zero during the pick, and their weights are restored after
+     * @return up to n distinct items of list of positive weight, in the order they were drawn
+     */
+    @NonNull
+    public <T> List<T> pickN(@NonNull List<T> list, @NonNull WeightedSampler weights, int n) {
+        if (weights.size() != list.size())
+            throw new IllegalArgumentException("Weights of " + weights.size() + " items for " +
+                    list.size());
+        int[] positions;
+        int[] drawn;
+        synchronized (weights) {
+            n = Math.min(n, weights.positive());
+            if (n <= 0) return Collections.emptyList();
+            positions = new int[n];
+            drawn = new int[n];
+            for (int i = 0; i < n; i++) {
+                positions[i] = weights.find(random.nextInt(weights.total()));
+                drawn[i] = weights.weight(positions[i]);
+                weights.set(positions[i], 0);
+            }
+            for (int i = 0; i < n; i++)
+                weights.set(positions[i], drawn[i]);
+        }
+        List<T> picks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            picks.add(list.get(positions[i]));
+        return picks;
+    }
+
+    /**
+     * <p>Floyd's algorithm: samples n distinct indices of [0, size) into out, in random order.
+     * Uses O(n^2) time, as each draw is checked against the previous ones by a linear scan,
+     * which beats hashing for the few items of a round, and no memory beyond out.</p>
+     * <p>Pre: 0 <= n <= size, out.length >= n</p>
+     */
+    public void sampleIndices(int size, int n, @NonNull int[] out) {
+        int count = 0;
+        int t;
+        for (int j = size - n; j < size; j++) {
+            t = random.nextInt(j + 1);
+            if (contains(out, count, t)) t = j;
+            out[count++] = t;
+        }
+        // Floyd's algorithm yields a uniform set but not a uniform order
+        for (int i = n - 1; i > 0; i--)
+            swap(out, i, random.nextInt(i + 1));
+    }
+
+    public int nextInt(int size) { return random.nextInt(size); }
+
+    private int[] permutation(int size) {
+        if (permutationSize != size) {
+            if (permutation.length < size)
+                permutation = new int[size];
+            for (int i = 0; i < size; i++)
+                permutation[i] = i;
+            permutationSize = size;
+        }
+        return permutation;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++)
+            if (values[i] == value) return true;
+        return false;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int t = values[i];
+        values[i] = values[j];
+        values[j] = t;
+    }
+
+    public interface ListFilter<T> {
+        boolean accept(T item);
+    }
+
+    private static final class JavaUtilRandom implements RandomSource {
+        @NonNull
+        private final Random random;
+
+        JavaUtilRandom(@NonNull Random random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @NonNull
+        @Override
+        public RandomSource split() {
+            return new JavaUtilRandom(new Random(random.nextLong()));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>A prefix index over the names of one roster, for typing a name. Each person is keyed by first
+ * name, by last name, and by "first last", folded to lower case without accents, and the keys are
+ * kept in one sorted array. The keys matching a prefix are then a range of it, which a
+ * {@link Cursor} narrows keystroke by keystroke with two binary searches, without allocating.</p>
+ * <p>Built once per roster, see {@link RosterIndex#names()}, and immutable, so any number of
+ * cursors may read it from any thread.</p>
+ */
+public final class NameIndex {
+
+    /**
+     * Typed text past this length is ignored
+     */
+    public static final int MAX_LENGTH = 64;
+
+    /**
+     * Folded form of the Latin and Greek characters, Latin Extended Additional included, whose
+     * accents are dropped. The others are folded on the fly
+     */
+    private static final char[] FOLD = new char[0x2000];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++)
+            FOLD[c] = decompose(c);
+        // Letters with a stroke have no decomposition
+        FOLD['\u00D8'] = FOLD['\u00F8'] = 'o';
+        FOLD['\u0110'] = FOLD['\u0111'] = 'd';
+        FOLD['\u0141'] = FOLD['\u0142'] = 'l';
+        FOLD['\u0126'] = FOLD['\u0127'] = 'h';
+        FOLD['\u0131'] = 'i';
+    }
+
+    @NonNull
+    private final String[] keys;
+    /**
+     * The position in the roster of the person of each key
+     */
+    @NonNull
+    private final int[] positions;
+
+    private NameIndex(@NonNull String[] keys, @NonNull int[] positions) {
+        this.keys = keys;
+        this.positions = positions;
+    }
+
+    @NonNull
+    public static NameIndex of(@NonNull List<Person> roster) {
+        int size = roster.size();
+        ColumnarRoster columns = roster instanceof ColumnarRoster ? (ColumnarRoster) roster : null;
+        Key[] entries = new Key[size * 3];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            String firstName;
+            String lastName;
+            if (columns != null) {
+                firstName = columns.firstName(i);
+                lastName = columns.lastName(i);
+            } else {
+                Person person = roster.get(i);
+                firstName = person.getFirstName();
+                lastName = person.getLastName();
+            }
+            String first = firstName == null ? "" : fold(firstName);
+            String last = lastName == null ? "" : fold(lastName);
+            if (!first.isEmpty()) entries[count++] = new Key(first, i);
+            if (!last.isEmpty()) entries[count++] = new Key(last, i);
+            if (!first.isEmpty() && !last.isEmpty()) entries[count++] = new Key(first + ' ' + last, i);
+        }
+        Arrays.sort(entries, 0, count, KEY_ORDER);
+
+        String[] keys = new String[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = entries[i].key;
+            positions[i] = entries[i].position;
+        }
+        return new NameIndex(keys, positions);
+    }
+
+    /**
+     * @return c in lower case, without accent
+     */
+    public static char fold(char c) {
+        return c < FOLD.length ? FOLD[c] : decompose(c);
+    }
+
+    /**
+     * @return the base of c in lower case, if c decomposes into a base and accents only; c in
+     * lower case otherwise, e.g. for a Hangul syllable, which decomposes into letters
+     */
+    private static char decompose(char c) {
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        for (int i = 1; i < decomposed.length(); i++) {
+            if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK)
+                return Character.toLowerCase(c);
+        }
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+
+    @NonNull
+    public static String fold(@NonNull String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++)
+            folded[i] = fold(text.charAt(i));
+        return new String(folded);
+    }
+
+    /**
+     * @return the number of keys, up to three per person
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    @NonNull
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return the first position in [from, to) whose key has a char of at least c at depth, where
+     * every key of the range shares the chars before depth
+     */
+    private int lowerBound(int from, int to, int depth, int c) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (charAt(keys[mid], depth) < c) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++)
+            if (values[i] == value) return true;
+        return false;
+    }
+
+    private static int charAt(String key, int depth) {
+        return depth < key.length() ? key.charAt(depth) : -1;
+    }
+
+    /**
+     * The text typed so far and the range of keys it prefixes. Keystrokes take O(log n) and do not
+     * allocate; erasing takes O(1). A cursor holds O(1) memory, whatever the size of the roster,
+     * and is used by one thread at a time.
+     */
+    public final class Cursor {
+        private final char[] typed = new char[MAX_LENGTH];
+        /**
+         * The range of keys matching the first i chars typed is [from[i], to[i])
+         */
+        private final int[] from = new int[MAX_LENGTH + 1];
+        private final int[] to = new int[MAX_LENGTH + 1];
+        private int length;
+
+        Cursor() {
+            to[0] = keys.length;
+        }
+
+        /**
+         * @return whether any name matches the text with c appended. Ignored past
+         * {@link #MAX_LENGTH}
+         */
+        public boolean type(char c) {
+            if (length == MAX_LENGTH) return count() > 0;
+            char folded = fold(c);
+            int lower = lowerBound(from[length], to[length], length, folded);
+            int upper = lowerBound(lower, to[length], length, folded + 1);
+            typed[length++] = folded;
+            from[length] = lower;
+            to[length] = upper;
+            return upper > lower;
+        }
+
+        public void erase() {
+            if (length > 0) length--;
+        }
+
+        public void clear() {
+            length = 0;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * @return the i-th char typed, folded
+         */
+        public char charAt(int i) {
+            if (i >= length) throw new IndexOutOfBoundsException("Index: " + i + ", Length: " + length);
+            return typed[i];
+        }
+
+        /**
+         * @return the number of keys matching; a person may match by more than one name
+         */
+        public int count() {
+            return to[length] - from[length];
+        }
+
+        /**
+         * @return the roster position of the person of the match-th key, in key order
+         */
+        public int position(int match) {
+            if (match < 0 || match >= count())
+                throw new IndexOutOfBoundsException("Match: " + match + ", Count: " + count());
+            return positions[from[length] + match];
+        }
+
+        /**
+         * Fills out with the roster positions of the people matching, each once, in key order. A
+         * person is looked up among those already written, which for the few suggestions shown
+         * costs less than marking the whole roster
+         * @return the number of positions written, at most out.length
+         */
+        public int suggestions(@NonNull int[] out) {
+            int written = 0;
+            for (int key = from[length]; key < to[length] && written < out.length; key++) {
+                int position = positions[key];
+                if (!contains(out, written, position))
+                    out[written++] = position;
+            }
+            return written;
+        }
+    }
+
+    private static final class Key {
+        final String key;
+        final int position;
+
+        Key(String key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    private static final Comparator<Key> KEY_ORDER = new Comparator<Key>() {
+        @Override
+        public int compare(Key a, Key b) {
+            return a.key.compareTo(b.key);
+        }
+    };
+}
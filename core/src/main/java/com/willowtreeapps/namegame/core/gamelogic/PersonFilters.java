@@ -0,0 +1,154 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.Locale;
+
+/**
+ * Factory of {@link RosterFilter}s over the fields of {@link Person}. Text matching is
+ * case-insensitive. The filters over text fields read a {@link ColumnarRoster} by column
+ */
+public final class PersonFilters {
+
+    @NonNull
+    public static RosterFilter jobTitleContains(@NonNull String text) {
+        final String needle = text.toLowerCase(Locale.US);
+        return RosterFilter.of("jobTitle~" + needle, JOB_TITLE, new ListRandomizer.ListFilter<String>() {
+            @Override
+            public boolean accept(String item) {
+                return containsIgnoreCase(item, needle);
+            }
+        });
+    }
+
+    @NonNull
+    public static RosterFilter firstNameContains(@NonNull String text) {
+        final String needle = text.toLowerCase(Locale.US);
+        return RosterFilter.of("firstName~" + needle, FIRST_NAME, new ListRandomizer.ListFilter<String>() {
+            @Override
+            public boolean accept(String item) {
+                return containsIgnoreCase(item, needle);
+            }
+        });
+    }
+
+    /**
+     * Accepts people whose first or last name begins with prefix
+     */
+    @NonNull
+    public static RosterFilter namePrefix(@NonNull final String prefix) {
+        String key = prefix.toLowerCase(Locale.US);
+        ListRandomizer.ListFilter<String> startsWith = new ListRandomizer.ListFilter<String>() {
+            @Override
+            public boolean accept(String item) {
+                return startsWithIgnoreCase(item, prefix);
+            }
+        };
+        return RosterFilter.of("firstName^" + key, FIRST_NAME, startsWith)
+                .or(RosterFilter.of("lastName^" + key, LAST_NAME, startsWith));
+    }
+
+    @NonNull
+    public static RosterFilter hasHeadshot() {
+        return HAS_HEADSHOT;
+    }
+
+    @NonNull
+    public static RosterFilter headshotUrlContains(@NonNull final String text) {
+        return RosterFilter.of("headshotUrl~" + text, HEADSHOT_URL, new ListRandomizer.ListFilter<String>() {
+            @Override
+            public boolean accept(String item) {
+                return item != null && item.contains(text);
+            }
+        });
+    }
+
+    /**
+     * Accepts people with a headshot of at least the given dimensions, in pixels
+     */
+    @NonNull
+    public static RosterFilter headshotAtLeast(final int width, final int height) {
+        return RosterFilter.of("headshot>=" + width + "x" + height, new ListRandomizer.ListFilter<Person>() {
+            @Override
+            public boolean accept(Person item) {
+                Headshot headshot = item.getHeadshot();
+                return headshot != null && headshot.getWidth() >= width && headshot.getHeight() >= height;
+            }
+        });
+    }
+
+    private static final RosterFilter.Field FIRST_NAME = new RosterFilter.Field() {
+        @Override
+        public String of(@NonNull Person person) {
+            return person.getFirstName();
+        }
+
+        @Override
+        public String of(@NonNull ColumnarRoster roster, int position) {
+            return roster.firstName(position);
+        }
+    };
+
+    private static final RosterFilter.Field LAST_NAME = new RosterFilter.Field() {
+        @Override
+        public String of(@NonNull Person person) {
+            return person.getLastName();
+        }
+
+        @Override
+        public String of(@NonNull ColumnarRoster roster, int position) {
+            return roster.lastName(position);
+        }
+    };
+
+    private static final RosterFilter.Field JOB_TITLE = new RosterFilter.Field() {
+        @Override
+        public String of(@NonNull Person person) {
+            return person.getJobTitle();
+        }
+
+        @Override
+        public String of(@NonNull ColumnarRoster roster, int position) {
+            return roster.jobTitle(position);
+        }
+    };
+
+    /**
+     * Null when there is no headshot
+     */
+    private static final RosterFilter.Field HEADSHOT_URL = new RosterFilter.Field() {
+        @Override
+        public String of(@NonNull Person person) {
+            return person.getHeadshot() == null ? null : person.getHeadshot().getUrl();
+        }
+
+        @Override
+        public String of(@NonNull ColumnarRoster roster, int position) {
+            return roster.headshotUrl(position);
+        }
+    };
+
+    private static final RosterFilter HAS_HEADSHOT = RosterFilter.of("hasHeadshot", HEADSHOT_URL,
+            new ListRandomizer.ListFilter<String>() {
+                @Override
+                public boolean accept(String item) {
+                    return item != null;
+                }
+            });
+
+    private static boolean containsIgnoreCase(String text, String lowerCaseNeedle) {
+        return text != null && text.toLowerCase(Locale.US).contains(lowerCaseNeedle);
+    }
+
+    private static boolean startsWithIgnoreCase(String text, String prefix) {
+        return text != null && text.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private PersonFilters() {
+        throw new AssertionError("No instances.");
+    }
+}
@@ -0,0 +1,20 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Source of the random numbers of a {@link ListRandomizer}. Implementations need not be
+ * thread-safe: each thread or game session should use its own {@link #split()} of a source
+ */
+public interface RandomSource {
+    /**
+     * @return a uniformly distributed int in [0, bound)
+     */
+    int nextInt(int bound);
+
+    /**
+     * @return a new source, statistically independent of this one, which is advanced by the split
+     */
+    @NonNull
+    RandomSource split();
+}
@@ -0,0 +1,259 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Schedules who to ask next by spaced repetition, over the Leitner system. Each person answered
+ * is kept in a box: a correct answer moves them up one box, a wrong one back to the first. The
+ * higher the box, the more rounds until they are due again, so the people a player misremembers
+ * come back soon and those they know fade out.</p>
+ * <p>Time is counted in rounds answered. The people are kept in a binary heap by the round they
+ * are due, so a pick and an answer each take O(log n) of the people tracked. The state is a few
+ * bytes per person, see {@link #toByteArray()}.</p>
+ * <p>The memory of one player, shared by their sessions. Thread-safe.</p>
+ */
+public final class RecallScheduler {
+
+    private static final int MAGIC = 0x4E475231; // "NGR1"
+    private static final int VERSION = 1;
+
+    /**
+     * Rounds until a person is due again, by box
+     */
+    private static final int[] INTERVALS = {1, 2, 5, 12, 30, 75, 180};
+    /**
+     * Random draws for someone not tracked yet, before someone is reviewed ahead of schedule
+     */
+    private static final int NEW_PERSON_ATTEMPTS = 8;
+    /**
+     * The most people presized for on a read, whatever count a corrupt state claims; more grow as
+     * they are read
+     */
+    private static final int MAX_PRESIZE = 1024;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    // The state of each person, by slot
+    private String[] ids;
+    private byte[] boxes;
+    private int[] due;
+    /**
+     * A binary heap of the slots, ordered by due round then by box
+     */
+    private int[] heap;
+    /**
+     * The position in heap of each slot
+     */
+    private int[] heapIndex;
+    private int size;
+    private int round;
+
+    public RecallScheduler() {
+        this(16);
+    }
+
+    private RecallScheduler(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new String[capacity];
+        boxes = new byte[capacity];
+        due = new int[capacity];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+    }
+
+    /**
+     * @return the number of boxes; a person is in box 0 to boxes() - 1
+     */
+    public static int boxes() {
+        return INTERVALS.length;
+    }
+
+    /**
+     * @return the number of people tracked
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of rounds answered
+     */
+    public synchronized int round() {
+        return round;
+    }
+
+    /**
+     * @return the box of the person, or -1 if they are not tracked
+     */
+    public synchronized int box(@Nullable String id) {
+        Integer slot = slots.get(id);
+        return slot == null ? -1 : boxes[slot];
+    }
+
+    /**
+     * Picks who to ask next, among the people of roster accepted by filter: the person due the
+     * longest, else someone not asked yet, else anyone, ahead of schedule. The person is scheduled
+     * as if remembered until {@link #record(String, boolean)} tells otherwise, so rounds picked
+     * ahead do not repeat them.
+     * <p>Due people who left the roster, or are not accepted by filter, are postponed on the
+     * way.</p>
+     * @return the position in roster of the person
+     * @throws IllegalStateException if filter accepts nobody
+     */
+    public synchronized int pick(@NonNull RosterIndex roster, @Nullable RosterFilter filter,
+                                 @NonNull ListRandomizer random) {
+        int[] eligible = filter == null ? null : roster.index(filter);
+        int count = eligible == null ? roster.size() : eligible.length;
+        if (count == 0) throw new IllegalStateException("Nobody to ask");
+        BitSet accepted = filter == null ? null : roster.bits(filter);
+
+        while (size > 0 && due[heap[0]] <= round) {
+            int slot = heap[0];
+            schedule(slot, round + INTERVALS[boxes[slot]]);
+            int position = roster.positionOf(ids[slot]);
+            if (position >= 0 && (accepted == null || accepted.get(position))) return position;
+        }
+
+        int position = 0;
+        for (int attempt = 0; attempt < NEW_PERSON_ATTEMPTS; attempt++) {
+            position = random.nextInt(count);
+            if (eligible != null) position = eligible[position];
+            String id = roster.id(position);
+            if (id != null && !slots.containsKey(id)) {
+                schedule(add(id), round + INTERVALS[0]);
+                return position;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Records the answer about a person, and schedules when to ask again
+     */
+    public synchronized void record(@Nullable String id, boolean correct) {
+        if (id == null) return;
+        round++;
+        Integer slot = slots.get(id);
+        if (slot == null) slot = add(id);
+        int box = correct ? Math.min(boxes[slot] + 1, INTERVALS.length - 1) : 0;
+        boxes[slot] = (byte) box;
+        schedule(slot, round + INTERVALS[box]);
+    }
+
+    /**
+     * @return the state in a compact binary form, read back by {@link #read(DataInputStream)}
+     */
+    @NonNull
+    public synchronized byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + size * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(round);
+            out.writeInt(size);
+            for (int slot = 0; slot < size; slot++) {
+                out.writeUTF(ids[slot]);
+                out.writeByte(boxes[slot]);
+                out.writeInt(due[slot]);
+            }
+        } catch (IOException e) {
+            // Not thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @NonNull
+    public static RecallScheduler read(@NonNull DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IOException("Unknown scheduler format");
+
+        int round = in.readInt();
+        int size = in.readInt();
+        if (size < 0) throw new IOException("Negative size " + size);
+        RecallScheduler scheduler = new RecallScheduler(Math.min(size, MAX_PRESIZE));
+        scheduler.round = round;
+        for (int i = 0; i < size; i++) {
+            String id = in.readUTF();
+            int box = in.readByte();
+            if (box < 0 || box >= INTERVALS.length) throw new IOException("Unknown box " + box);
+            int slot = scheduler.add(id);
+            scheduler.boxes[slot] = (byte) box;
+            scheduler.schedule(slot, in.readInt());
+        }
+        return scheduler;
+    }
+
+    /**
+     * Tracks id in box 0, due now
+     * @return its slot
+     */
+    private int add(String id) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            boxes = Arrays.copyOf(boxes, capacity);
+            due = Arrays.copyOf(due, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+        }
+        int slot = size++;
+        slots.put(id, slot);
+        ids[slot] = id;
+        boxes[slot] = 0;
+        due[slot] = round;
+        heap[slot] = slot;
+        heapIndex[slot] = slot;
+        siftUp(slot);
+        return slot;
+    }
+
+    private void schedule(int slot, int dueRound) {
+        due[slot] = dueRound;
+        siftUp(heapIndex[slot]);
+        siftDown(heapIndex[slot]);
+    }
+
+    private boolean before(int slot, int other) {
+        return due[slot] != due[other] ? due[slot] < due[other] : boxes[slot] < boxes[other];
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(slot, heap[parent])) break;
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(slot, index);
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], slot)) break;
+            move(heap[child], index);
+            index = child;
+        }
+        move(slot, index);
+    }
+
+    private void move(int slot, int index) {
+        heap[index] = slot;
+        heapIndex[slot] = index;
+    }
+}
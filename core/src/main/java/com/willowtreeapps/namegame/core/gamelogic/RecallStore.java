@@ -0,0 +1,122 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Keeps the state of a {@link RecallScheduler} on local storage, so the spaced repetition of a
+ * player carries over from one run of the app to the next.</p>
+ * <p>Reads and writes run on the given executor, one at a time, and what is read is delivered on
+ * the callback executor. A write copies the state on the calling thread, which takes no disk
+ * access, then writes it in the background and replaces the file atomically.</p>
+ */
+public class RecallStore {
+
+    @NonNull
+    private final File file;
+    @NonNull
+    private final Executor executor;
+    @NonNull
+    private final Executor callbackExecutor;
+    /**
+     * Whether the stored state was delivered, before which writes would replace it with a blank one
+     */
+    private volatile boolean delivered;
+
+    public RecallStore(@NonNull File file, @NonNull Executor executor,
+                       @NonNull Executor callbackExecutor) {
+        this.file = file;
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Reads the scheduler last written in the background, then hands it to callback on the
+     * callback executor
+     */
+    public void read(@NonNull final ReadCallback callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final RecallScheduler scheduler = read();
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        delivered = true;
+                        callback.onRead(scheduler);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads on the calling thread, see {@link #read(ReadCallback)}
+     * @return the scheduler last written, or a new one if there is no readable state
+     */
+    @NonNull
+    public RecallScheduler read() {
+        if (!file.exists()) return new RecallScheduler();
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            return RecallScheduler.read(in);
+        } catch (IOException | RuntimeException e) {
+            // A stale format or a corrupt file starts the player over
+            return new RecallScheduler();
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Replaces the stored state with that of scheduler in the background. Ignored until a
+     * {@link #read(ReadCallback)} delivered the stored state, which scheduler would not hold yet
+     */
+    public void write(@NonNull RecallScheduler scheduler) {
+        if (!delivered) return;
+        final byte[] state = scheduler.toByteArray();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File tmp = new File(file.getPath() + ".tmp");
+                OutputStream out = null;
+                try {
+                    out = new FileOutputStream(tmp);
+                    out.write(state);
+                    out.close();
+                    out = null;
+                    if (!tmp.renameTo(file)) {
+                        tmp.delete();
+                    }
+                } catch (IOException e) {
+                    tmp.delete();
+                } finally {
+                    closeQuietly(out);
+                }
+            }
+        });
+    }
+
+    public interface ReadCallback {
+        void onRead(@NonNull RecallScheduler scheduler);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
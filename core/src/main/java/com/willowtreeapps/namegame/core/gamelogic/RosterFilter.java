@@ -0,0 +1,223 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.network.api.RosterDelta;
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <p>A filter over the people of a roster, which a {@link RosterIndex} evaluates at most once per
+ * roster into a bitset. Filters compose with {@link #and}, {@link #or} and {@link #not}, which
+ * combine the cached bitsets of their operands instead of re-testing each person.</p>
+ * <p>Filters are identified by their key, so two filters with the same key share one cached
+ * bitset. See {@link PersonFilters} for the filters over Person fields.</p>
+ */
+public abstract class RosterFilter {
+
+    @NonNull
+    private final String key;
+
+    RosterFilter(@NonNull String key) {
+        this.key = key;
+    }
+
+    /**
+     * @param key Unique name of the filter, used as its cache key
+     */
+    @NonNull
+    public static RosterFilter of(@NonNull String key, @NonNull ListRandomizer.ListFilter<Person> filter) {
+        return new PersonLeaf(key, filter);
+    }
+
+    /**
+     * A filter over one field, read from the columns of a {@link ColumnarRoster} without
+     * materializing anyone
+     * @param key Unique name of the filter, used as its cache key
+     */
+    @NonNull
+    public static RosterFilter of(@NonNull String key, @NonNull Field field,
+                                  @NonNull ListRandomizer.ListFilter<String> filter) {
+        return new FieldLeaf(key, field, filter);
+    }
+
+    @NonNull
+    public RosterFilter and(@NonNull RosterFilter other) {
+        return new Combined(this, other, true);
+    }
+
+    @NonNull
+    public RosterFilter or(@NonNull RosterFilter other) {
+        return new Combined(this, other, false);
+    }
+
+    @NonNull
+    public RosterFilter not() {
+        return new Not(this);
+    }
+
+    @NonNull
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return a new bitset holding the positions of the people in index accepted by this filter
+     */
+    @NonNull
+    abstract BitSet evaluate(@NonNull RosterIndex index);
+
+    /**
+     * @param previousBits this filter's bitset over the previous roster of delta
+     * @return the bitset over the roster of next, or null if it is cheaper to evaluate it anew
+     */
+    @Nullable
+    BitSet update(@NonNull BitSet previousBits, @NonNull RosterIndex next, @NonNull RosterDelta delta) {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof RosterFilter && key.equals(((RosterFilter) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    /**
+     * A string field of the people
+     */
+    public interface Field {
+        @Nullable
+        String of(@NonNull Person person);
+
+        @Nullable
+        String of(@NonNull ColumnarRoster roster, int position);
+    }
+
+    private abstract static class Leaf extends RosterFilter {
+
+        Leaf(String key) {
+            super(key);
+        }
+
+        abstract boolean accept(@NonNull List<Person> roster, int position);
+
+        @NonNull
+        @Override
+        BitSet evaluate(@NonNull RosterIndex index) {
+            List<Person> roster = index.roster();
+            int size = roster.size();
+            BitSet bits = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                if (accept(roster, i))
+                    bits.set(i);
+            }
+            return bits;
+        }
+
+        /**
+         * Only tests the people that were added or changed
+         */
+        @NonNull
+        @Override
+        BitSet update(@NonNull BitSet previousBits, @NonNull RosterIndex next, @NonNull RosterDelta delta) {
+            List<Person> roster = next.roster();
+            int size = roster.size();
+            BitSet bits = new BitSet(size);
+            int previous;
+            for (int i = 0; i < size; i++) {
+                previous = delta.previousPosition(i);
+                if (previous >= 0 ? previousBits.get(previous) : accept(roster, i))
+                    bits.set(i);
+            }
+            return bits;
+        }
+    }
+
+    private static final class PersonLeaf extends Leaf {
+        private final ListRandomizer.ListFilter<Person> filter;
+
+        PersonLeaf(String key, ListRandomizer.ListFilter<Person> filter) {
+            super(key);
+            this.filter = filter;
+        }
+
+        @Override
+        boolean accept(@NonNull List<Person> roster, int position) {
+            return filter.accept(roster.get(position));
+        }
+    }
+
+    private static final class FieldLeaf extends Leaf {
+        private final Field field;
+        private final ListRandomizer.ListFilter<String> filter;
+
+        FieldLeaf(String key, Field field, ListRandomizer.ListFilter<String> filter) {
+            super(key);
+            this.field = field;
+            this.filter = filter;
+        }
+
+        @Override
+        boolean accept(@NonNull List<Person> roster, int position) {
+            return filter.accept(roster instanceof ColumnarRoster ?
+                    field.of((ColumnarRoster) roster, position) :
+                    field.of(roster.get(position)));
+        }
+    }
+
+    private static final class Combined extends RosterFilter {
+        private final RosterFilter left;
+        private final RosterFilter right;
+        private final boolean and;
+
+        Combined(RosterFilter left, RosterFilter right, boolean and) {
+            super("(" + left.key() + (and ? " & " : " | ") + right.key() + ")");
+            this.left = left;
+            this.right = right;
+            this.and = and;
+        }
+
+        @NonNull
+        @Override
+        BitSet evaluate(@NonNull RosterIndex index) {
+            BitSet bits = (BitSet) index.bits(left).clone();
+            if (and) {
+                bits.and(index.bits(right));
+            } else {
+                bits.or(index.bits(right));
+            }
+            return bits;
+        }
+    }
+
+    private static final class Not extends RosterFilter {
+        private final RosterFilter filter;
+
+        Not(RosterFilter filter) {
+            super("!" + filter.key());
+            this.filter = filter;
+        }
+
+        @NonNull
+        @Override
+        BitSet evaluate(@NonNull RosterIndex index) {
+            BitSet bits = new BitSet(index.size());
+            bits.set(0, index.size());
+            bits.andNot(index.bits(filter));
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.network.api.RosterDelta;
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Caches the evaluation of {@link RosterFilter}s over one roster. Each filter is evaluated at
+ * most once into a bitset; its eligible positions are materialized at most once into an index
+ * that {@link ListRandomizer#pickN(List, int[], int)} samples from.</p>
+ * <p>A new RosterIndex should be built for each load of the roster, which must not be modified
+ * afterwards. Thread-safe, so game sessions on any thread share one: two threads may both
+ * evaluate a filter that is not cached yet, but they agree on the result and only one is kept.</p>
+ */
+public class RosterIndex {
+
+    @NonNull
+    private final List<Person> roster;
+    private final ConcurrentMap<RosterFilter, BitSet> bits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RosterFilter, int[]> indexes = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile NameIndex names;
+    @Nullable
+    private volatile FuzzyNameMatcher fuzzyNames;
+    @Nullable
+    private volatile Map<String, Integer> positions;
+    /**
+     * Shared by the indexes updated from one another by appending people only
+     */
+    @NonNull
+    private final Object lineage;
+
+    public RosterIndex(@NonNull List<Person> roster) {
+        this(roster, new Object());
+    }
+
+    private RosterIndex(@NonNull List<Person> roster, @NonNull Object lineage) {
+        this.roster = roster;
+        this.lineage = lineage;
+    }
+
+    /**
+     * @return an index of the roster after delta. The filters cached here carry over: people who
+     * did not change keep their bits, and only the others are tested. Rebuilds from scratch when
+     * delta does not start from this roster
+     */
+    @NonNull
+    public RosterIndex update(@NonNull RosterDelta delta) {
+        if (delta.previous() != roster) return new RosterIndex(delta.roster());
+        RosterIndex next = new RosterIndex(delta.roster(), delta.isAppend() ? lineage : new Object());
+
+        BitSet updated;
+        for (Map.Entry<RosterFilter, BitSet> entry : bits.entrySet()) {
+            updated = entry.getKey().update(entry.getValue(), next, delta);
+            if (updated != null)
+                next.bits.put(entry.getKey(), updated);
+        }
+        return next;
+    }
+
+    @NonNull
+    public List<Person> roster() {
+        return roster;
+    }
+
+    /**
+     * @return whether every position of other holds the same person here, other having been
+     * {@link #update updated} into this index by appending people only
+     */
+    public boolean extendsRoster(@NonNull RosterIndex other) {
+        return this == other || lineage == other.lineage && size() >= other.size();
+    }
+
+    public int size() {
+        return roster.size();
+    }
+
+    @NonNull
+    public Person get(int position) {
+        return roster.get(position);
+    }
+
+    /**
+     * @return the id of the person at position, read without materializing them from a columnar
+     * roster
+     */
+    @Nullable
+    public String id(int position) {
+        return roster instanceof ColumnarRoster ?
+                ((ColumnarRoster) roster).id(position) :
+                roster.get(position).getId();
+    }
+
+    /**
+     * @return the position of the person with id, or -1 if they are not in the roster. The
+     * positions by id are mapped on first use
+     */
+    public int positionOf(@Nullable String id) {
+        Map<String, Integer> result = positions;
+        if (result == null) {
+            result = new HashMap<>(roster.size() * 2);
+            for (int i = roster.size() - 1; i >= 0; i--)
+                result.put(id(i), i);
+            positions = result;
+        }
+        Integer position = result.get(id);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * @return the positions accepted by filter. Shared with the cache, so it must not be modified
+     */
+    @NonNull
+    public BitSet bits(@NonNull RosterFilter filter) {
+        BitSet result = bits.get(filter);
+        if (result == null) {
+            result = filter.evaluate(this);
+            BitSet cached = bits.putIfAbsent(filter, result);
+            if (cached != null) result = cached;
+        }
+        return result;
+    }
+
+    /**
+     * @return the positions accepted by filter, in ascending order. Shared with the cache, so it
+     * must not be modified
+     */
+    @NonNull
+    public int[] index(@NonNull RosterFilter filter) {
+        int[] result = indexes.get(filter);
+        if (result == null) {
+            result = FilterIndex.fromBits(bits(filter));
+            int[] cached = indexes.putIfAbsent(filter, result);
+            if (cached != null) result = cached;
+        }
+        return result;
+    }
+
+    public int count(@NonNull RosterFilter filter) {
+        return index(filter).length;
+    }
+
+    /**
+     * @return the prefix index of the names of the roster, built on first use. Not carried over by
+     * {@link #update(RosterDelta)}, as the sorted keys would shift anyway
+     */
+    @NonNull
+    public NameIndex names() {
+        NameIndex result = names;
+        if (result == null)
+            names = result = NameIndex.of(roster);
+        return result;
+    }
+
+    /**
+     * @return the matcher of typed names to the people of the roster, built on first use
+     */
+    @NonNull
+    public FuzzyNameMatcher fuzzyNames() {
+        FuzzyNameMatcher result = fuzzyNames;
+        if (result == null)
+            fuzzyNames = result = FuzzyNameMatcher.of(roster);
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>The SplitMix64 generator of java.util.SplittableRandom, which Android only has from API 24.
+ * Same seed, same sequence: a seeded instance yields the values of a SplittableRandom of that
+ * seed.</p>
+ * <p>The state is two longs and is never shared, so there is no CAS as in java.util.Random. Not
+ * thread-safe; give each thread a {@link #split()}.</p>
+ */
+public final class SplitMix64 implements RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Seeds the instances that are not given a seed
+     */
+    private static final AtomicLong SEEDER =
+            new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    private long seed;
+    private final long gamma;
+
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return a generator with an unpredictable seed, distinct from that of other calls
+     */
+    @NonNull
+    public static SplitMix64 withRandomSeed() {
+        long s = SEEDER.getAndAdd(2 * GOLDEN_GAMMA);
+        return new SplitMix64(mix64(s), mixGamma(s + GOLDEN_GAMMA));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // Power of two
+            r &= m;
+        } else {
+            // Rejects the values of the incomplete last interval, which would bias the low ones
+            for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1)
+                ;
+        }
+        return r;
+    }
+
+    @NonNull
+    @Override
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(nextSeed()));
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * @return an odd gamma with enough bit transitions to make a good stream
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,105 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import android.support.annotation.NonNull;
+
+/**
+ * <p>Non-negative integer weights over the positions of a list, kept in a Fenwick tree, so that
+ * changing one weight and finding the position of a draw each take O(log n). A position is drawn
+ * with probability proportional to its weight, see
+ * {@link ListRandomizer#pickN(java.util.List, WeightedSampler, int)}.</p>
+ * <p>Unlike an alias table, which draws in O(1) but is rebuilt in O(n) on any change, the tree
+ * follows the weights as a game changes them one at a time.</p>
+ * <p>Thread-safe; a sequence of calls is made atomic by holding the lock of the sampler.</p>
+ */
+public final class WeightedSampler {
+
+    private final int[] weights;
+    /**
+     * tree[i] is the sum of the weights of the positions i - (i & -i) to i - 1
+     */
+    private final int[] tree;
+    /**
+     * The highest power of two that is at most the size
+     */
+    private final int topBit;
+    private int total;
+    private int positive;
+
+    /**
+     * Builds in O(n)
+     * @throws IllegalArgumentException if a weight is negative, or their total overflows an int
+     */
+    public WeightedSampler(@NonNull int[] weights) {
+        int size = weights.length;
+        this.weights = weights.clone();
+        this.tree = new int[size + 1];
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] < 0) throw new IllegalArgumentException("Negative weight " + weights[i]);
+            total += weights[i];
+            if (weights[i] > 0) positive++;
+            tree[i + 1] += weights[i];
+            int parent = i + 1 + ((i + 1) & -(i + 1));
+            if (parent <= size) tree[parent] += tree[i + 1];
+        }
+        if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("Total weight overflows");
+        this.total = (int) total;
+        this.topBit = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public synchronized int weight(int position) {
+        return weights[position];
+    }
+
+    public synchronized int total() {
+        return total;
+    }
+
+    /**
+     * @return the number of positions of positive weight, which may be drawn
+     */
+    public synchronized int positive() {
+        return positive;
+    }
+
+    /**
+     * @throws IllegalArgumentException if weight is negative, or the total would overflow an int
+     */
+    public synchronized void set(int position, int weight) {
+        if (weight < 0) throw new IllegalArgumentException("Negative weight " + weight);
+        int delta = weight - weights[position];
+        if (delta == 0) return;
+        if ((long) total + delta > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Total weight overflows");
+        if (weights[position] == 0) positive++;
+        if (weight == 0) positive--;
+        weights[position] = weight;
+        total += delta;
+        for (int i = position + 1; i < tree.length; i += i & -i)
+            tree[i] += delta;
+    }
+
+    /**
+     * <p>Pre: 0 <= target < {@link #total()}</p>
+     * @return the position whose weights span target, when laid end to end: the position of a
+     * uniform target is drawn with probability proportional to its weight
+     */
+    public synchronized int find(int target) {
+        if (target < 0 || target >= total)
+            throw new IllegalArgumentException("Target " + target + " out of [0, " + total + ")");
+        // Descends the tree for the last position whose prefix sum is at most target
+        int position = 0;
+        for (int bit = topBit; bit > 0; bit >>>= 1) {
+            int next = position + bit;
+            if (next < tree.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        return position;
+    }
+}
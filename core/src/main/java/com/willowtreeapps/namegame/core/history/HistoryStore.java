@@ -0,0 +1,331 @@
+package com.willowtreeapps.namegame.core.history;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Keeps the history of the rounds answered on local storage. Outcomes are appended to a log in
+ * batches, and the log is compacted now and then into counters per person, so the files stay
+ * about the size of the roster however long the player plays.</p>
+ * <p>The counters are also kept in memory, up to date with every outcome, so stats are read
+ * without touching the disk. Recording an outcome only updates memory and may queue a write: all
+ * the disk access, the first read included, runs on the given executor, which must run its tasks
+ * one at a time and in order, e.g. a single thread.</p>
+ * <p>The counters written by a compaction carry a generation, which the log started after it
+ * repeats. A log of another generation was already compacted, so a crash at any point neither
+ * loses nor counts twice what was written. Thread-safe.</p>
+ */
+public class HistoryStore {
+
+    private static final int STATS_MAGIC = 0x4E474831; // "NGH1"
+    private static final int LOG_MAGIC = 0x4E474C31; // "NGL1"
+    private static final int VERSION = 1;
+
+    /**
+     * Outcomes buffered in memory before they are written
+     */
+    static final int BATCH_SIZE = 16;
+    /**
+     * Outcomes logged before the log is compacted
+     */
+    static final int COMPACT_AFTER = 1024;
+
+    @NonNull
+    private final File statsFile;
+    @NonNull
+    private final File logFile;
+    @NonNull
+    private final Executor executor;
+
+    // Guarded by this: the counters of everything recorded, and the outcomes not written yet
+    private final Map<String, Counters> live = new HashMap<>();
+    private final Counters liveTotals = new Counters();
+    private List<RoundOutcome> pending = new ArrayList<>(BATCH_SIZE);
+    private boolean writeQueued;
+    private volatile boolean loaded;
+
+    // Confined to the executor: the counters of everything written, as of the last generation
+    private final Map<String, Counters> persisted = new HashMap<>();
+    private int generation;
+    private int logged;
+
+    /**
+     * Reads back the history of directory in the background
+     */
+    public HistoryStore(@NonNull File directory, @NonNull Executor executor) {
+        this.statsFile = new File(directory, "history.stats");
+        this.logFile = new File(directory, "history.log");
+        this.executor = executor;
+        executor.execute(load);
+    }
+
+    /**
+     * Counts outcome at once, and writes it with the next batch
+     */
+    public void record(@NonNull RoundOutcome outcome) {
+        boolean write;
+        synchronized (this) {
+            counters(live, outcome.getPersonId()).add(outcome);
+            liveTotals.add(outcome);
+            pending.add(outcome);
+            write = pending.size() >= BATCH_SIZE && !writeQueued;
+            if (write) writeQueued = true;
+        }
+        if (write) executor.execute(this.write);
+    }
+
+    /**
+     * Writes the outcomes buffered so far, e.g. as the app goes to the background
+     */
+    public void flush() {
+        synchronized (this) {
+            if (pending.isEmpty() || writeQueued) return;
+            writeQueued = true;
+        }
+        executor.execute(write);
+    }
+
+    /**
+     * @return whether the stored history was read back, so the stats include it; until then they
+     * only count the outcomes recorded since
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @NonNull
+    public synchronized PersonStats stats(@Nullable String personId) {
+        Counters counters = live.get(personId);
+        return counters == null ? PersonStats.NONE : counters.toStats();
+    }
+
+    /**
+     * @return the counters of all the rounds answered
+     */
+    @NonNull
+    public synchronized PersonStats totals() {
+        return liveTotals.toStats();
+    }
+
+    private final Runnable load = new Runnable() {
+        @Override
+        public void run() {
+            boolean clean = readStats();
+            // Read after the counters, whose generation it must repeat
+            clean &= readLog();
+            synchronized (HistoryStore.this) {
+                for (Map.Entry<String, Counters> entry : persisted.entrySet()) {
+                    counters(live, entry.getKey()).add(entry.getValue());
+                    liveTotals.add(entry.getValue());
+                }
+            }
+            loaded = true;
+            // A stale or torn log is replaced, so appends go to a clean one
+            if (!clean) compact();
+        }
+    };
+
+    private final Runnable write = new Runnable() {
+        @Override
+        public void run() {
+            List<RoundOutcome> batch;
+            synchronized (HistoryStore.this) {
+                batch = pending;
+                pending = new ArrayList<>(BATCH_SIZE);
+                writeQueued = false;
+            }
+            // Counted even if the append fails, so the next compaction keeps them
+            for (RoundOutcome outcome : batch)
+                counters(persisted, outcome.getPersonId()).add(outcome);
+            if (!append(batch) || (logged += batch.size()) >= COMPACT_AFTER) compact();
+        }
+    };
+
+    /**
+     * @return false if the counters exist but are unreadable
+     */
+    private boolean readStats() {
+        if (!statsFile.exists()) return true;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(statsFile)));
+            if (in.readInt() != STATS_MAGIC || in.readInt() != VERSION)
+                throw new IOException("Unknown stats format");
+            int generation = in.readInt();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Counters counters = counters(persisted, in.readUTF());
+                counters.answered = in.readInt();
+                counters.correct = in.readInt();
+                counters.latencyMillis = in.readLong();
+            }
+            this.generation = generation;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // The history starts over
+            persisted.clear();
+            return false;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Replays the outcomes logged since the last compaction
+     * @return false if the log exists but is of another generation, or ends in a torn record
+     */
+    private boolean readLog() {
+        if (!logFile.exists()) return true;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)));
+            if (in.readInt() != LOG_MAGIC || in.readInt() != VERSION || in.readInt() != generation)
+                return false;
+            while (true) {
+                in.mark(1);
+                if (in.read() < 0) return true;
+                in.reset();
+                RoundOutcome outcome = new RoundOutcome(in.readUTF(), in.readByte(), in.readInt(),
+                        in.readBoolean());
+                counters(persisted, outcome.getPersonId()).add(outcome);
+                logged++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // A torn last record, or an unreadable log; what was read before it counts
+            return false;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * @return whether batch was appended to the log
+     */
+    private boolean append(List<RoundOutcome> batch) {
+        boolean exists = logFile.exists();
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+            if (!exists) writeLogHeader(out, generation);
+            for (RoundOutcome outcome : batch) {
+                out.writeUTF(outcome.getPersonId());
+                out.writeByte(outcome.getMode());
+                out.writeInt(outcome.getLatencyMillis());
+                out.writeBoolean(outcome.isCorrect());
+            }
+            out.close();
+            out = null;
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    /**
+     * Writes the counters of the next generation, then starts an empty log of it
+     */
+    private void compact() {
+        int next = generation + 1;
+        File tmp = new File(statsFile.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(STATS_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(next);
+            out.writeInt(persisted.size());
+            for (Map.Entry<String, Counters> entry : persisted.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().answered);
+                out.writeInt(entry.getValue().correct);
+                out.writeLong(entry.getValue().latencyMillis);
+            }
+            out.close();
+            out = null;
+            if (!tmp.renameTo(statsFile)) {
+                tmp.delete();
+                return;
+            }
+            // From here the old log is of a past generation, so it is ignored if left behind
+            generation = next;
+            logged = 0;
+
+            File log = new File(logFile.getPath() + ".tmp");
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(log)));
+            writeLogHeader(out, next);
+            out.close();
+            out = null;
+            if (!log.renameTo(logFile)) {
+                log.delete();
+                logFile.delete();
+            }
+        } catch (IOException e) {
+            tmp.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void writeLogHeader(DataOutputStream out, int generation) throws IOException {
+        out.writeInt(LOG_MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(generation);
+    }
+
+    @NonNull
+    private static Counters counters(Map<String, Counters> map, String personId) {
+        Counters counters = map.get(personId);
+        if (counters == null) {
+            counters = new Counters();
+            map.put(personId, counters);
+        }
+        return counters;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static final class Counters {
+        int answered;
+        int correct;
+        long latencyMillis;
+
+        void add(RoundOutcome outcome) {
+            answered++;
+            if (outcome.isCorrect()) correct++;
+            latencyMillis += outcome.getLatencyMillis();
+        }
+
+        void add(Counters other) {
+            answered += other.answered;
+            correct += other.correct;
+            latencyMillis += other.latencyMillis;
+        }
+
+        PersonStats toStats() {
+            return new PersonStats(answered, correct, latencyMillis);
+        }
+    }
+}
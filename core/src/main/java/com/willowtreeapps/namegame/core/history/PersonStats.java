@@ -0,0 +1,45 @@
+package com.willowtreeapps.namegame.core.history;
+
+/**
+ * The counters of the rounds answered about one person, or about everyone
+ */
+public final class PersonStats {
+
+    static final PersonStats NONE = new PersonStats(0, 0, 0);
+
+    private final int answered;
+    private final int correct;
+    private final long totalLatencyMillis;
+
+    PersonStats(int answered, int correct, long totalLatencyMillis) {
+        this.answered = answered;
+        this.correct = correct;
+        this.totalLatencyMillis = totalLatencyMillis;
+    }
+
+    public int getAnswered() {
+        return answered;
+    }
+
+    public int getCorrect() {
+        return correct;
+    }
+
+    public long getTotalLatencyMillis() {
+        return totalLatencyMillis;
+    }
+
+    /**
+     * @return the share of correct answers, or 0 if there was no answer
+     */
+    public double accuracy() {
+        return answered == 0 ? 0 : (double) correct / answered;
+    }
+
+    /**
+     * @return the mean time to answer, or 0 if there was no answer
+     */
+    public long meanLatencyMillis() {
+        return answered == 0 ? 0 : totalLatencyMillis / answered;
+    }
+}
@@ -0,0 +1,60 @@
+package com.willowtreeapps.namegame.core.history;
+
+import android.support.annotation.NonNull;
+
+/**
+ * The outcome of one round answered: who was to be named, in which mode, how long the player took
+ * to answer, and whether they were right
+ */
+public final class RoundOutcome {
+
+    @NonNull
+    private final String personId;
+    private final int mode;
+    private final int latencyMillis;
+    private final boolean correct;
+
+    /**
+     * @param latencyMillis from the round being shown to its first answer; capped to an int
+     */
+    public RoundOutcome(@NonNull String personId, int mode, long latencyMillis, boolean correct) {
+        this.personId = personId;
+        this.mode = mode;
+        this.latencyMillis = (int) Math.max(0, Math.min(latencyMillis, Integer.MAX_VALUE));
+        this.correct = correct;
+    }
+
+    @NonNull
+    public String getPersonId() {
+        return personId;
+    }
+
+    public int getMode() {
+        return mode;
+    }
+
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoundOutcome)) return false;
+        RoundOutcome that = (RoundOutcome) o;
+        return mode == that.mode && latencyMillis == that.latencyMillis &&
+                correct == that.correct && personId.equals(that.personId);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = personId.hashCode();
+        result = 31 * result + mode;
+        result = 31 * result + latencyMillis;
+        return 31 * result + (correct ? 1 : 0);
+    }
+}
@@ -0,0 +1,31 @@
+package com.willowtreeapps.namegame.network.api;
+
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.Query;
+
+public interface NameGameApi {
+    @GET("/api/v1.0/profiles")
+    Call<List<Person>> getProfiles();
+
+    /**
+     * Revalidates the cached profiles with the server. Responds 304 with no body when the cached
+     * profiles are still current, see {@link NotModifiedInterceptor}
+     */
+    @GET("/api/v1.0/profiles")
+    @Headers({"Cache-Control: max-age=0", NotModifiedInterceptor.HEADER + ": true"})
+    Call<List<Person>> revalidateProfiles();
+
+    /**
+     * At most limit profiles, from the skip-th on. The metadata of the page holds the total number
+     * of profiles, so the other pages may be fetched at once
+     */
+    @GET("/api/v1.0/profiles")
+    Call<Profiles> getProfilesPage(@Query("skip") int skip, @Query("limit") int limit);
+}
@@ -0,0 +1,40 @@
+package com.willowtreeapps.namegame.network.api;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * <p>Application interceptor that surfaces a successful cache revalidation as a 304, instead of
+ * the cached 200 that OkHttp's cache returns in its place.</p>
+ * <p>Only applies to requests carrying {@link #HEADER}, which is stripped before the request goes
+ * out. Such requests should also ask for revalidation, e.g. with {@code Cache-Control: max-age=0},
+ * so that the cache sends {@code If-None-Match}/{@code If-Modified-Since}. Retrofit reports the
+ * 304 as a non-successful response, so the cached body is never converted again.</p>
+ */
+public class NotModifiedInterceptor implements Interceptor {
+
+    public static final String HEADER = "X-Report-Not-Modified";
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(HEADER) == null) return chain.proceed(request);
+
+        Response response = chain.proceed(request.newBuilder().removeHeader(HEADER).build());
+        Response networkResponse = response.networkResponse();
+        if (networkResponse == null || networkResponse.code() != HttpURLConnection.HTTP_NOT_MODIFIED)
+            return response;
+
+        response.body().close();
+        return response.newBuilder()
+                .code(HttpURLConnection.HTTP_NOT_MODIFIED)
+                .message("Not Modified")
+                .body(ResponseBody.create(null, new byte[0]))
+                .build();
+    }
+}
@@ -0,0 +1,259 @@
+package com.willowtreeapps.namegame.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Metadata;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+import com.willowtreeapps.namegame.network.api.model.SocialLinks;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * <p>Decodes a {@code List<Person>} response body with a streaming {@link JsonReader} into a
+ * {@link ColumnarRoster}, keeping only the fields the game reads. Social links and the unused
+ * headshot fields are skipped without being bound.</p>
+ * <p>Pages of {@link Profiles} are decoded the same way, and let a game start on the first one,
+ * see {@link ProfilesRepository}. Other types are left to the next converter factory.</p>
+ */
+public class PeopleConverterFactory extends Converter.Factory {
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        if (type == Profiles.class) {
+            return new Converter<ResponseBody, Profiles>() {
+                @Override
+                public Profiles convert(@NonNull ResponseBody value) throws IOException {
+                    JsonReader reader = new JsonReader(value.charStream());
+                    try {
+                        return readProfiles(reader);
+                    } finally {
+                        value.close();
+                    }
+                }
+            };
+        }
+        if (!isListOfPerson(type)) return null;
+        return new Converter<ResponseBody, List<Person>>() {
+            @Override
+            public List<Person> convert(@NonNull ResponseBody value) throws IOException {
+                JsonReader reader = new JsonReader(value.charStream());
+                try {
+                    return readPeople(reader);
+                } finally {
+                    value.close();
+                }
+            }
+        };
+    }
+
+    private static boolean isListOfPerson(Type type) {
+        if (!(type instanceof ParameterizedType)) return false;
+        ParameterizedType parameterized = (ParameterizedType) type;
+        return parameterized.getRawType() == List.class &&
+                parameterized.getActualTypeArguments()[0] == Person.class;
+    }
+
+    /**
+     * Reads either an array of people, or an object holding them under "items"
+     */
+    @NonNull
+    ColumnarRoster readPeople(@NonNull JsonReader in) throws IOException {
+        ColumnarRoster.Builder people = new ColumnarRoster.Builder();
+        if (in.peek() == JsonToken.BEGIN_OBJECT) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("items".equals(in.nextName())) {
+                    readArray(in, people);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        } else {
+            readArray(in, people);
+        }
+        return people.build();
+    }
+
+    /**
+     * Reads a page of people and its metadata. A bare array, or a page without metadata, is taken
+     * for every profile there is, as answered by a server that does not page
+     */
+    @NonNull
+    Profiles readProfiles(@NonNull JsonReader in) throws IOException {
+        ColumnarRoster.Builder people = new ColumnarRoster.Builder();
+        Metadata meta = null;
+        if (in.peek() == JsonToken.BEGIN_OBJECT) {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "items":
+                        readArray(in, people);
+                        break;
+                    case "meta":
+                        meta = readMetadata(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+        } else {
+            readArray(in, people);
+        }
+        if (meta == null) meta = new Metadata(0, people.size(), people.size());
+        return new Profiles(people.build(), meta);
+    }
+
+    private static void readArray(JsonReader in, ColumnarRoster.Builder people) throws IOException {
+        in.beginArray();
+        while (in.hasNext())
+            people.add(readPerson(in));
+        in.endArray();
+    }
+
+    @NonNull
+    static Person readPerson(@NonNull JsonReader in) throws IOException {
+        String id = null;
+        String type = null;
+        String slug = null;
+        String jobTitle = null;
+        String firstName = null;
+        String lastName = null;
+        Headshot headshot = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = nextString(in);
+                    break;
+                case "type":
+                    type = nextString(in);
+                    break;
+                case "slug":
+                    slug = nextString(in);
+                    break;
+                case "jobTitle":
+                    jobTitle = nextString(in);
+                    break;
+                case "firstName":
+                    firstName = nextString(in);
+                    break;
+                case "lastName":
+                    lastName = nextString(in);
+                    break;
+                case "headshot":
+                    headshot = readHeadshot(in);
+                    break;
+                default:
+                    // socialLinks and anything else the game does not read
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Person(id, type, slug, jobTitle, firstName, lastName, headshot,
+                Collections.<SocialLinks>emptyList());
+    }
+
+    @Nullable
+    private static Headshot readHeadshot(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String mimeType = null;
+        String id = null;
+        String url = null;
+        int height = 0;
+        int width = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "mimeType":
+                    mimeType = nextString(in);
+                    break;
+                case "id":
+                    id = nextString(in);
+                    break;
+                case "url":
+                    url = nextString(in);
+                    break;
+                case "height":
+                    height = nextInt(in);
+                    break;
+                case "width":
+                    width = nextInt(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Headshot(null, mimeType, id, url, null, height, width);
+    }
+
+    @Nullable
+    private static Metadata readMetadata(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int skip = 0;
+        int limit = 0;
+        int total = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "skip":
+                    skip = nextInt(in);
+                    break;
+                case "limit":
+                    limit = nextInt(in);
+                    break;
+                case "total":
+                    total = nextInt(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Metadata(skip, limit, total);
+    }
+
+    @Nullable
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+}
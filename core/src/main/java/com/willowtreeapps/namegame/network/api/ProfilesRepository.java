@@ -0,0 +1,449 @@
+package com.willowtreeapps.namegame.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+import com.willowtreeapps.namegame.util.ListenerRegistry;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.willowtreeapps.namegame.network.api.ProfilesRepository.ResponseOutcome.FAIL;
+import static com.willowtreeapps.namegame.network.api.ProfilesRepository.ResponseOutcome.IN_PROGRESS;
+import static com.willowtreeapps.namegame.network.api.ProfilesRepository.ResponseOutcome.SUCCESS;
+
+/**
+ * Loads the profiles and pushes them to its {@link Listener}s, on Retrofit's callback executor,
+ * which is the main thread on Android. Listeners may register and unregister from any thread.
+ * The profiles are held as a {@link ColumnarRoster}.
+ * <p>With a page size, a load without profiles to revalidate fetches them a page at a time, see
+ * {@link PagedLoad}.</p>
+ */
+public class ProfilesRepository {
+
+    private static final ListenerRegistry.Event<Listener, List<Person>> LOAD_SUCCESS =
+            new ListenerRegistry.Event<Listener, List<Person>>() {
+                @Override
+                public void deliver(@NonNull Listener listener, List<Person> people) {
+                    listener.onLoadSuccess(people);
+                }
+            };
+
+    private static final ListenerRegistry.Event<DeltaListener, RosterDelta> ROSTER_CHANGED =
+            new ListenerRegistry.Event<DeltaListener, RosterDelta>() {
+                @Override
+                public void deliver(@NonNull DeltaListener listener, RosterDelta delta) {
+                    listener.onRosterChanged(delta);
+                }
+            };
+
+    private static final ListenerRegistry.Event<Listener, Throwable> ERROR =
+            new ListenerRegistry.Event<Listener, Throwable>() {
+                @Override
+                public void deliver(@NonNull Listener listener, Throwable error) {
+                    listener.onError(error);
+                }
+            };
+
+    @NonNull
+    private final NameGameApi api;
+    @Nullable
+    private final ProfilesSnapshot snapshot;
+    /**
+     * The number of profiles per page, or 0 to load them in one response
+     */
+    private final int pageSize;
+    @NonNull
+    private final ListenerRegistry<Listener> listeners = new ListenerRegistry<>();
+    @NonNull
+    private final ListenerRegistry<DeltaListener> deltaListeners = new ListenerRegistry<>();
+    /**
+     * Published before listeners are notified, so one registering concurrently either receives
+     * the event or reads the new state in {@link #register(Listener)}
+     */
+    @Nullable
+    private volatile List<Person> profiles;
+
+    private volatile int responseOutcome = IN_PROGRESS;
+    /**
+     * Whether profiles came from the snapshot or are partial, and were not yet confirmed by a
+     * complete network response
+     */
+    private boolean provisional;
+    /**
+     * Whether profiles are the first pages of a paged load, the others still to come
+     */
+    private volatile boolean partial;
+    /**
+     * The call being made, or the first of a paged load, which refreshes attach to rather than
+     * fire another. Each load that completes notifies the listeners once, of its profiles or of
+     * its error
+     */
+    @Nullable
+    private Call<?> inFlight;
+
+    public static final class ResponseOutcome {
+        public static final int SUCCESS         = 0;
+        public static final int FAIL            = 1;
+        public static final int IN_PROGRESS     = 2;
+    }
+
+    public ProfilesRepository(@NonNull NameGameApi api, Listener... listeners) {
+        this(api, null, listeners);
+    }
+
+    /**
+     * @param snapshot When not null, the last good profiles are read from it in the background and
+     *                 served as soon as they are read, then revalidated over the network
+     */
+    public ProfilesRepository(@NonNull NameGameApi api, @Nullable ProfilesSnapshot snapshot,
+                              Listener... listeners) {
+        this(api, snapshot, 0, listeners);
+    }
+
+    /**
+     * @param pageSize When positive, profiles are loaded in pages of this many people, which are
+     *                 fetched in parallel
+     */
+    public ProfilesRepository(@NonNull NameGameApi api, @Nullable ProfilesSnapshot snapshot,
+                              int pageSize, Listener... listeners) {
+        this.api = api;
+        this.snapshot = snapshot;
+        this.pageSize = pageSize;
+        if (listeners != null) {
+            for (Listener listener : listeners)
+                this.listeners.add(listener);
+        }
+        if (snapshot == null) {
+            load(false);
+            return;
+        }
+        // The network waits for the snapshot, so as to only revalidate what it holds
+        snapshot.read(new ProfilesSnapshot.ReadCallback() {
+            @Override
+            public void onRead(@Nullable List<Person> cached) {
+                onSnapshotRead(cached);
+            }
+        });
+    }
+
+    private void onSnapshotRead(@Nullable List<Person> cached) {
+        // Unless a refresh already loaded fresher profiles
+        if (cached != null && profiles == null) {
+            provisional = true;
+            onProfilesLoaded(cached);
+        }
+        load(profiles != null);
+    }
+
+    /**
+     * @param revalidate Whether to make a conditional request, which answers 304 when the profiles
+     *                   we already hold are current
+     */
+    private synchronized void load(boolean revalidate) {
+        // Single-flight: the in-flight call will deliver to every listener
+        if (inFlight != null) return;
+
+        if (!revalidate && pageSize > 0) {
+            new PagedLoad().start();
+            return;
+        }
+        Call<List<Person>> call = revalidate ? api.revalidateProfiles() : api.getProfiles();
+        inFlight = call;
+        // Retrofit2
+        call.enqueue(new Callback<List<Person>>() {
+            @Override
+            public void onResponse(Call<List<Person>> call, Response<List<Person>> response) {
+                complete();
+
+                if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    onNotModified();
+                    return;
+                }
+                List<Person> people = response.body();
+                if (people == null) {
+                    onLoadFailure(new IOException("Unexpected response " + response.code()));
+                    return;
+                }
+                // Listeners already hold these people when the snapshot was up to date
+                if (people.equals(profiles)) {
+                    onProfilesConfirmed();
+                    return;
+                }
+                provisional = false;
+                onProfilesLoaded(people);
+                if (snapshot != null)
+                    snapshot.write(people);
+            }
+
+            @Override
+            public void onFailure(Call<List<Person>> call, Throwable t) {
+                complete();
+                onLoadFailure(t);
+            }
+        });
+    }
+
+    /**
+     * Ends the in-flight call, so the next refresh fires another
+     */
+    private synchronized void complete() {
+        inFlight = null;
+    }
+
+    private void onLoadFailure(@NonNull Throwable t) {
+        // The snapshot stays playable while the network is unavailable, though the load failed
+        if (!provisional)
+            responseOutcome = FAIL;
+        listeners.dispatch(ERROR, t);
+    }
+
+    /**
+     * Fetches the profiles a page at a time. The first page tells the total, and the others are
+     * then requested at once, to run in parallel over the connection pool. A game may start on the
+     * first page, which is published at once; the profiles stay {@link #isPartial() partial} until
+     * the last. A failed page fails the load, and so does a first page too short for the total.
+     * The pages published before stay playable, yet provisional: the next load fetches them all
+     * again rather than revalidate them.
+     * <p>Each publish copies the roster and has every listener rebuild what it derives from it, so
+     * the leading pages are only published again once they at least double the people published
+     * last: a load of n people then costs O(n) over all of its publishes, in O(log n) of them.</p>
+     * <p>Callbacks run on the callback executor, one at a time.</p>
+     */
+    private final class PagedLoad {
+        private final ColumnarRoster.Builder loaded = new ColumnarRoster.Builder();
+        /**
+         * The pages received, by number; null until the first page tells how many there are
+         */
+        @Nullable
+        private List<List<Person>> pages;
+        /**
+         * The number of leading pages added to loaded
+         */
+        private int published;
+        /**
+         * The number of people of the last partial roster published
+         */
+        private int publishedPeople;
+        /**
+         * The number of people per page, which is less than pageSize should the server cap it
+         */
+        private int stride;
+        /**
+         * The number of people of the partial roster of a failed load this one starts over, which
+         * stays published until more are loaded
+         */
+        private final int held;
+        private boolean done;
+
+        PagedLoad() {
+            List<Person> people = profiles;
+            held = partial && people != null ? people.size() : 0;
+        }
+
+        void start() {
+            Call<Profiles> call = api.getProfilesPage(0, pageSize);
+            inFlight = call;
+            enqueue(0, call);
+        }
+
+        private void enqueue(final int page, Call<Profiles> call) {
+            call.enqueue(new Callback<Profiles>() {
+                @Override
+                public void onResponse(Call<Profiles> call, Response<Profiles> response) {
+                    Profiles profiles = response.body();
+                    if (profiles == null || profiles.getPeople() == null ||
+                            profiles.getMetadata() == null) {
+                        onFailure(call, new IOException("Unexpected response " + response.code()));
+                        return;
+                    }
+                    onPage(page, profiles);
+                }
+
+                @Override
+                public void onFailure(Call<Profiles> call, Throwable t) {
+                    fail(t);
+                }
+            });
+        }
+
+        private void fail(@NonNull Throwable t) {
+            if (done) return;
+            done = true;
+            complete();
+            // The pages published so far stay partial and provisional, so they remain playable
+            onLoadFailure(t);
+        }
+
+        private void onPage(int page, Profiles profiles) {
+            if (done) return;
+            boolean first = pages == null;
+            if (first) {
+                int total = profiles.getMetadata().getTotal();
+                stride = profiles.getPeople().size();
+                // Short of its limit, the first page would set a stride that skips people
+                int limit = profiles.getMetadata().getLimit();
+                if (total > 0 && (stride == 0 || stride < total && stride < limit)) {
+                    fail(new IOException("First page of " + stride + " of " + total + " profiles"));
+                    return;
+                }
+                // A server that does not page answers with everyone at once
+                int count = stride == 0 || stride >= total ? 1 : (total + stride - 1) / stride;
+                pages = new ArrayList<>(Collections.<List<Person>>nCopies(count, null));
+            }
+            pages.set(page, profiles.getPeople());
+            publish();
+            if (first) {
+                for (int i = 1; i < pages.size() && !done; i++)
+                    enqueue(i, api.getProfilesPage(i * stride, stride));
+            }
+        }
+
+        private void publish() {
+            int before = published;
+            while (published < pages.size() && pages.get(published) != null) {
+                loaded.addAll(pages.get(published));
+                // Only the columns it was added to are kept
+                pages.set(published++, null);
+            }
+            if (published == before) return;
+
+            if (published < pages.size()) {
+                if (loaded.size() <= held || loaded.size() < 2 * publishedPeople) return;
+                publishedPeople = loaded.size();
+                partial = true;
+                provisional = true;
+                onProfilesLoaded(loaded.build());
+                return;
+            }
+
+            List<Person> people = loaded.build();
+            done = true;
+            complete();
+            partial = false;
+            if (people.equals(profiles)) {
+                onProfilesConfirmed();
+                return;
+            }
+            provisional = false;
+            onProfilesLoaded(people);
+            if (snapshot != null)
+                snapshot.write(people);
+        }
+    }
+
+    /**
+     * The profiles we hold are current, so nothing is re-parsed
+     */
+    private void onNotModified() {
+        if (profiles == null) {
+            // Nothing to confirm; fetch the cached profiles instead
+            load(false);
+            return;
+        }
+        onProfilesConfirmed();
+    }
+
+    /**
+     * Ends a load that found the profiles we hold current. Listeners are told the load succeeded,
+     * but as the roster is the same, delta listeners are not
+     */
+    private void onProfilesConfirmed() {
+        provisional = false;
+        responseOutcome = SUCCESS;
+        listeners.dispatch(LOAD_SUCCESS, profiles);
+    }
+
+    private void onProfilesLoaded(@NonNull List<Person> loaded) {
+        // The converter and the snapshot already load columnar rosters
+        List<Person> people = ColumnarRoster.copyOf(loaded);
+        List<Person> previous = profiles;
+        profiles = people;
+        responseOutcome = SUCCESS;
+        // The diff costs a pass over both rosters, so it is only made when someone listens
+        if (deltaListeners.size() > 0)
+            deltaListeners.dispatch(ROSTER_CHANGED, RosterDelta.between(previous, people));
+        listeners.dispatch(LOAD_SUCCESS, people);
+    }
+
+    /**
+     * Reloads the profiles, unless a load is already in flight, whose result is then delivered.
+     * The first pages of a failed load are fetched again in full, as there is nothing to revalidate
+     */
+    public void refresh() {
+        load(profiles != null && !partial);
+    }
+
+    /**
+     * @return whether the profiles are only the first pages of a load, still in progress or failed
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public int getResponseOutcome() {
+        return responseOutcome;
+    }
+
+    @Nullable
+    public List<Person> getProfiles() { return profiles; }
+
+    public void register(@NonNull Listener listener) {
+        if (!listeners.add(listener))
+            throw new IllegalStateException("Listener is already registered.");
+        // Update listener if the data is alive
+        List<Person> people = profiles;
+        switch (responseOutcome) {
+            case ResponseOutcome.SUCCESS:
+                assert people != null;
+                listener.onLoadSuccess(people);
+                break;
+
+            case ResponseOutcome.FAIL:
+                listener.onError(new Throwable("Network Request failed"));
+                break;
+        }
+    }
+
+    public void unregister(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Delta listeners are notified of each new roster before the {@link Listener}s are. One that
+     * registers once profiles are loaded is given them at once, as a delta adding everyone
+     */
+    public void registerDeltaListener(@NonNull DeltaListener listener) {
+        if (!deltaListeners.add(listener))
+            throw new IllegalStateException("Listener is already registered.");
+        List<Person> people = profiles;
+        if (people != null)
+            listener.onRosterChanged(RosterDelta.between(null, people));
+    }
+
+    public void unregisterDeltaListener(@NonNull DeltaListener listener) {
+        deltaListeners.remove(listener);
+    }
+
+    public interface Listener {
+        void onLoadSuccess(@NonNull List<Person> people);
+        void onError(@NonNull Throwable error);
+    }
+
+    public interface DeltaListener {
+        /**
+         * @param delta from the roster of the previous notification, if any, to the new one
+         */
+        void onRosterChanged(@NonNull RosterDelta delta);
+    }
+}
@@ -0,0 +1,220 @@
+package com.willowtreeapps.namegame.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.SocialLinks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Keeps the last good list of profiles on local storage in a compact binary form, so that
+ * {@link ProfilesRepository} can serve it at startup while the network request is in flight. It is
+ * read back into a {@link ColumnarRoster}.</p>
+ * <p>Reads and writes run on the given executor, one at a time, and what is read is delivered on
+ * the callback executor. Writes replace the file atomically, so a crash mid-write leaves the
+ * previous snapshot intact.</p>
+ */
+public class ProfilesSnapshot {
+
+    private static final int MAGIC = 0x4E475331; // "NGS1"
+    private static final int VERSION = 1;
+    /**
+     * The most people or links presized for, whatever count a corrupt file claims; more grow as
+     * they are read
+     */
+    private static final int MAX_PRESIZE = 1024;
+
+    @NonNull
+    private final File file;
+    @NonNull
+    private final Executor executor;
+    @NonNull
+    private final Executor callbackExecutor;
+
+    public ProfilesSnapshot(@NonNull File file, @NonNull Executor executor,
+                            @NonNull Executor callbackExecutor) {
+        this.file = file;
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Reads the last snapshot in the background, then hands it to callback on the callback
+     * executor
+     */
+    public void read(@NonNull final ReadCallback callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<Person> people = read();
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onRead(people);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reads on the calling thread, see {@link #read(ReadCallback)}
+     * @return the people of the last snapshot, or null if there is no readable snapshot
+     */
+    @Nullable
+    public List<Person> read() {
+        if (!file.exists()) return null;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            return readPeople(in);
+        } catch (IOException | RuntimeException e) {
+            // A stale format or a corrupt file is as good as no snapshot
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with people in the background
+     */
+    public void write(@NonNull final List<Person> people) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File tmp = new File(file.getPath() + ".tmp");
+                DataOutputStream out = null;
+                try {
+                    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+                    writePeople(out, people);
+                    out.close();
+                    out = null;
+                    if (!tmp.renameTo(file)) {
+                        tmp.delete();
+                    }
+                } catch (IOException e) {
+                    tmp.delete();
+                } finally {
+                    closeQuietly(out);
+                }
+            }
+        });
+    }
+
+    static void writePeople(@NonNull DataOutputStream out, @NonNull List<Person> people) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(people.size());
+        for (Person person : people) {
+            writeString(out, person.getId());
+            writeString(out, person.getType());
+            writeString(out, person.getSlug());
+            writeString(out, person.getJobTitle());
+            writeString(out, person.getFirstName());
+            writeString(out, person.getLastName());
+
+            Headshot headshot = person.getHeadshot();
+            out.writeBoolean(headshot != null);
+            if (headshot != null) {
+                writeString(out, headshot.getType());
+                writeString(out, headshot.getMimeType());
+                writeString(out, headshot.getId());
+                writeString(out, headshot.getUrl());
+                writeString(out, headshot.getAlt());
+                out.writeInt(headshot.getHeight());
+                out.writeInt(headshot.getWidth());
+            }
+
+            List<SocialLinks> socialLinks = person.getSocialLinks();
+            out.writeInt(socialLinks == null ? -1 : socialLinks.size());
+            if (socialLinks != null) {
+                for (SocialLinks link : socialLinks) {
+                    writeString(out, link.getType());
+                    writeString(out, link.getCallToAction());
+                    writeString(out, link.getUrl());
+                }
+            }
+        }
+    }
+
+    @NonNull
+    static ColumnarRoster readPeople(@NonNull DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new IOException("Unknown snapshot format");
+
+        int size = in.readInt();
+        if (size < 0) throw new IOException("Negative count " + size);
+        ColumnarRoster.Builder people = new ColumnarRoster.Builder(Math.min(size, MAX_PRESIZE));
+        for (int i = 0; i < size; i++) {
+            String id = readString(in);
+            String type = readString(in);
+            String slug = readString(in);
+            String jobTitle = readString(in);
+            String firstName = readString(in);
+            String lastName = readString(in);
+
+            Headshot headshot = null;
+            if (in.readBoolean()) {
+                headshot = new Headshot(readString(in),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        in.readInt(),
+                        in.readInt());
+            }
+
+            List<SocialLinks> socialLinks = null;
+            int links = in.readInt();
+            if (links >= 0) {
+                socialLinks = new ArrayList<>(Math.min(links, MAX_PRESIZE));
+                for (int j = 0; j < links; j++)
+                    socialLinks.add(new SocialLinks(readString(in), readString(in), readString(in)));
+            }
+
+            people.add(new Person(id, type, slug, jobTitle, firstName, lastName, headshot, socialLinks));
+        }
+        return people.build();
+    }
+
+    public interface ReadCallback {
+        /**
+         * @param people the people of the last snapshot, or null if there is no readable snapshot
+         */
+        void onRead(@Nullable List<Person> people);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.willowtreeapps.namegame.network.api;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>The difference between two loads of the roster, by {@link Person#getId()}: the people added,
+ * removed, and changed in any field. Lets derived structures update only what changed, see
+ * {@link ProfilesRepository.DeltaListener}.</p>
+ * <p>Between two {@link ColumnarRoster}s, ids and fields are read from the columns, so only the
+ * people added, removed or changed are materialized.</p>
+ * <p>Should ids repeat within a roster, the people of an id are matched in order on both sides,
+ * the first with the first and so on: those left over are added if they are in the new roster,
+ * and removed if they are in the previous one.</p>
+ */
+public final class RosterDelta {
+
+    @Nullable
+    private final List<Person> previous;
+    @NonNull
+    private final List<Person> roster;
+    @NonNull
+    private final List<Person> added;
+    @NonNull
+    private final List<Person> removed;
+    @NonNull
+    private final List<Person> changed;
+    /**
+     * For each position of roster, the position of the same, unchanged person in previous, or -1
+     */
+    @NonNull
+    private final int[] previousPositions;
+    private final boolean append;
+
+    private RosterDelta(@Nullable List<Person> previous, @NonNull List<Person> roster,
+                        @NonNull List<Person> added, @NonNull List<Person> removed,
+                        @NonNull List<Person> changed, @NonNull int[] previousPositions,
+                        boolean append) {
+        this.previous = previous;
+        this.roster = roster;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+        this.previousPositions = previousPositions;
+        this.append = append;
+    }
+
+    /**
+     * @param previous the roster before, or null when there was none, in which case everyone is
+     *                 added
+     */
+    @NonNull
+    public static RosterDelta between(@Nullable List<Person> previous, @NonNull List<Person> roster) {
+        int[] previousPositions = new int[roster.size()];
+        if (previous == null || previous.isEmpty()) {
+            for (int i = 0; i < previousPositions.length; i++)
+                previousPositions[i] = -1;
+            return new RosterDelta(previous, roster, roster,
+                    Collections.<Person>emptyList(),
+                    Collections.<Person>emptyList(),
+                    previousPositions,
+                    true);
+        }
+
+        // The first position of each id in previous, and from each position the next of its id
+        Map<String, Integer> positions = new HashMap<>(previous.size() * 4 / 3 + 1);
+        int[] nextSameId = new int[previous.size()];
+        Integer first;
+        for (int i = previous.size() - 1; i >= 0; i--) {
+            first = positions.put(id(previous, i), i);
+            nextSameId[i] = first == null ? -1 : first;
+        }
+
+        List<Person> added = new ArrayList<>();
+        List<Person> changed = new ArrayList<>();
+        BitSet matched = new BitSet(previous.size());
+        String id;
+        Integer position;
+        for (int i = 0; i < roster.size(); i++) {
+            id = id(roster, i);
+            position = positions.get(id);
+            if (position == null) {
+                added.add(roster.get(i));
+                previousPositions[i] = -1;
+                continue;
+            }
+            // Each previous person is matched at most once; whoever is left over was removed
+            matched.set(position);
+            if (nextSameId[position] < 0) {
+                positions.remove(id);
+            } else {
+                positions.put(id, nextSameId[position]);
+            }
+            if (!same(previous, position, roster, i)) {
+                changed.add(roster.get(i));
+                previousPositions[i] = -1;
+            } else {
+                previousPositions[i] = position;
+            }
+        }
+
+        List<Person> removed;
+        int unmatched = previous.size() - matched.cardinality();
+        boolean append = unmatched == 0 && changed.isEmpty();
+        for (int i = 0; append && i < previous.size(); i++)
+            append = previousPositions[i] == i;
+        if (unmatched == 0) {
+            removed = Collections.emptyList();
+        } else {
+            removed = new ArrayList<>(unmatched);
+            for (int p = matched.nextClearBit(0); p < previous.size(); p = matched.nextClearBit(p + 1))
+                removed.add(previous.get(p));
+        }
+        return new RosterDelta(previous,
+                roster,
+                Collections.unmodifiableList(added),
+                Collections.unmodifiableList(removed),
+                Collections.unmodifiableList(changed),
+                previousPositions,
+                append);
+    }
+
+    @Nullable
+    private static String id(@NonNull List<Person> people, int position) {
+        return people instanceof ColumnarRoster ?
+                ((ColumnarRoster) people).id(position) :
+                people.get(position).getId();
+    }
+
+    private static boolean same(@NonNull List<Person> previous, int previousPosition,
+                                @NonNull List<Person> roster, int position) {
+        if (previous instanceof ColumnarRoster && roster instanceof ColumnarRoster)
+            return ((ColumnarRoster) roster).sameRow(position, (ColumnarRoster) previous, previousPosition);
+        return roster.get(position).equals(previous.get(previousPosition));
+    }
+
+    /**
+     * @return the roster before, or null when there was none
+     */
+    @Nullable
+    public List<Person> previous() {
+        return previous;
+    }
+
+    /**
+     * @return the roster after
+     */
+    @NonNull
+    public List<Person> roster() {
+        return roster;
+    }
+
+    @NonNull
+    public List<Person> added() {
+        return added;
+    }
+
+    /**
+     * @return the people removed, in the order of the previous roster
+     */
+    @NonNull
+    public List<Person> removed() {
+        return removed;
+    }
+
+    /**
+     * @return the new version of the people whose fields changed
+     */
+    @NonNull
+    public List<Person> changed() {
+        return changed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return whether the new roster is the previous one with people appended, so each position
+     * of the previous roster holds the same person in the new one, e.g. as pages of a load arrive
+     */
+    public boolean isAppend() {
+        return append;
+    }
+
+    /**
+     * @return the position in the previous roster of the person at position in the new one, or -1
+     * when that person was added or changed
+     */
+    public int previousPosition(int position) {
+        return previousPositions[position];
+    }
+}
@@ -0,0 +1,323 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * <p>An immutable roster stored by column. Each string field of the people is a packed array of
+ * indices into one pool of distinct strings, so the first names, last names, job titles and mime
+ * types that repeat across a roster are held once, and no {@link Person} or {@link Headshot} is
+ * kept per person.</p>
+ * <p>{@link #get(int)} materializes a new Person on each call, so a game only builds the few it
+ * shows. The columns the game filters on may be read without materializing anyone.</p>
+ */
+public final class ColumnarRoster extends AbstractList<Person> implements RandomAccess {
+
+    private static final int NONE = -1;
+
+    // Columns of indices into strings
+    private static final int ID = 0;
+    private static final int TYPE = 1;
+    private static final int SLUG = 2;
+    private static final int JOB_TITLE = 3;
+    private static final int FIRST_NAME = 4;
+    private static final int LAST_NAME = 5;
+    private static final int HEADSHOT_TYPE = 6;
+    private static final int HEADSHOT_MIME_TYPE = 7;
+    private static final int HEADSHOT_ID = 8;
+    private static final int HEADSHOT_URL = 9;
+    private static final int HEADSHOT_ALT = 10;
+    // Columns of values
+    private static final int HEADSHOT_HEIGHT = 11;
+    private static final int HEADSHOT_WIDTH = 12;
+    private static final int COLUMNS = 13;
+
+    private static final ColumnarRoster EMPTY = new Builder().build();
+
+    private final int size;
+    private final String[] strings;
+    private final int[][] columns;
+    /**
+     * The positions of the people with a headshot
+     */
+    private final BitSet headshots;
+    private final List<List<SocialLinks>> socialLinks;
+
+    private ColumnarRoster(int size, String[] strings, int[][] columns, BitSet headshots,
+                           List<List<SocialLinks>> socialLinks) {
+        this.size = size;
+        this.strings = strings;
+        this.columns = columns;
+        this.headshots = headshots;
+        this.socialLinks = socialLinks;
+    }
+
+    @NonNull
+    public static ColumnarRoster empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return people itself if it is already columnar, or a columnar copy of it
+     */
+    @NonNull
+    public static ColumnarRoster copyOf(@NonNull List<Person> people) {
+        if (people instanceof ColumnarRoster) return (ColumnarRoster) people;
+        Builder builder = new Builder(people.size());
+        for (int i = 0; i < people.size(); i++)
+            builder.add(people.get(i));
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Person get(int index) {
+        checkIndex(index);
+        Headshot headshot = null;
+        if (headshots.get(index)) {
+            headshot = new Headshot(string(HEADSHOT_TYPE, index),
+                    string(HEADSHOT_MIME_TYPE, index),
+                    string(HEADSHOT_ID, index),
+                    string(HEADSHOT_URL, index),
+                    string(HEADSHOT_ALT, index),
+                    columns[HEADSHOT_HEIGHT][index],
+                    columns[HEADSHOT_WIDTH][index]);
+        }
+        return new Person(string(ID, index),
+                string(TYPE, index),
+                string(SLUG, index),
+                string(JOB_TITLE, index),
+                string(FIRST_NAME, index),
+                string(LAST_NAME, index),
+                headshot,
+                socialLinks.get(index));
+    }
+
+    public String id(int index) {
+        checkIndex(index);
+        return string(ID, index);
+    }
+
+    public String firstName(int index) {
+        checkIndex(index);
+        return string(FIRST_NAME, index);
+    }
+
+    public String lastName(int index) {
+        checkIndex(index);
+        return string(LAST_NAME, index);
+    }
+
+    public String jobTitle(int index) {
+        checkIndex(index);
+        return string(JOB_TITLE, index);
+    }
+
+    /**
+     * @return the url of the headshot, or null if there is no headshot or it has no url
+     */
+    @Nullable
+    public String headshotUrl(int index) {
+        checkIndex(index);
+        return headshots.get(index) ? string(HEADSHOT_URL, index) : null;
+    }
+
+    /**
+     * @return the number of distinct strings the roster holds
+     */
+    public int distinctStrings() {
+        return strings.length;
+    }
+
+    /**
+     * Compares column by column when o is columnar too, without materializing anyone
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ColumnarRoster)) return super.equals(o);
+        ColumnarRoster that = (ColumnarRoster) o;
+        if (size != that.size || !headshots.equals(that.headshots)) return false;
+        for (int i = 0; i < size; i++) {
+            if (!sameRow(i, that, i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the person at index equals the one at otherIndex of other, compared column
+     * by column without materializing either
+     */
+    public boolean sameRow(int index, @NonNull ColumnarRoster other, int otherIndex) {
+        checkIndex(index);
+        other.checkIndex(otherIndex);
+        if (headshots.get(index) != other.headshots.get(otherIndex)) return false;
+        for (int column = ID; column <= HEADSHOT_ALT; column++) {
+            String value = string(column, index);
+            String otherValue = other.string(column, otherIndex);
+            if (value == null ? otherValue != null : !value.equals(otherValue)) return false;
+        }
+        if (columns[HEADSHOT_HEIGHT][index] != other.columns[HEADSHOT_HEIGHT][otherIndex] ||
+                columns[HEADSHOT_WIDTH][index] != other.columns[HEADSHOT_WIDTH][otherIndex])
+            return false;
+        List<SocialLinks> links = socialLinks.get(index);
+        List<SocialLinks> otherLinks = other.socialLinks.get(otherIndex);
+        return links == null ? otherLinks == null : links.equals(otherLinks);
+    }
+
+    /**
+     * Agrees with {@link List#hashCode()} of the materialized people, whose hash is that of their id
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < size; i++) {
+            String id = string(ID, i);
+            hashCode = 31 * hashCode + (id == null ? 0 : id.hashCode());
+        }
+        return hashCode;
+    }
+
+    private String string(int column, int index) {
+        int string = columns[column][index];
+        return string == NONE ? null : strings[string];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    /**
+     * Appends people to the columns, deduplicating their strings. May build any number of
+     * rosters, each of the people added so far.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> pool = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final BitSet headshots = new BitSet();
+        private final List<List<SocialLinks>> socialLinks;
+        private int[][] columns;
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int capacity) {
+            columns = new int[COLUMNS][Math.max(capacity, 1)];
+            socialLinks = new ArrayList<>(capacity);
+        }
+
+        @NonNull
+        public Builder add(@NonNull Person person) {
+            ensureCapacity(size + 1);
+            columns[ID][size] = intern(person.getId());
+            columns[TYPE][size] = intern(person.getType());
+            columns[SLUG][size] = intern(person.getSlug());
+            columns[JOB_TITLE][size] = intern(person.getJobTitle());
+            columns[FIRST_NAME][size] = intern(person.getFirstName());
+            columns[LAST_NAME][size] = intern(person.getLastName());
+
+            Headshot headshot = person.getHeadshot();
+            if (headshot != null) {
+                headshots.set(size);
+                columns[HEADSHOT_TYPE][size] = intern(headshot.getType());
+                columns[HEADSHOT_MIME_TYPE][size] = intern(headshot.getMimeType());
+                columns[HEADSHOT_ID][size] = intern(headshot.getId());
+                columns[HEADSHOT_URL][size] = intern(headshot.getUrl());
+                columns[HEADSHOT_ALT][size] = intern(headshot.getAlt());
+                columns[HEADSHOT_HEIGHT][size] = headshot.getHeight();
+                columns[HEADSHOT_WIDTH][size] = headshot.getWidth();
+            } else {
+                for (int column = HEADSHOT_TYPE; column <= HEADSHOT_ALT; column++)
+                    columns[column][size] = NONE;
+                columns[HEADSHOT_HEIGHT][size] = 0;
+                columns[HEADSHOT_WIDTH][size] = 0;
+            }
+
+            List<SocialLinks> links = person.getSocialLinks();
+            if (links == null) {
+                socialLinks.add(null);
+            } else if (links.isEmpty()) {
+                socialLinks.add(Collections.<SocialLinks>emptyList());
+            } else {
+                socialLinks.add(Collections.unmodifiableList(new ArrayList<>(links)));
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Copies the columns of a columnar roster as they are, without materializing anyone
+         */
+        @NonNull
+        public Builder addAll(@NonNull List<Person> people) {
+            if (!(people instanceof ColumnarRoster)) {
+                for (int i = 0; i < people.size(); i++)
+                    add(people.get(i));
+                return this;
+            }
+            ColumnarRoster roster = (ColumnarRoster) people;
+            ensureCapacity(size + roster.size);
+            for (int i = 0; i < roster.size; i++) {
+                for (int column = ID; column <= HEADSHOT_ALT; column++)
+                    columns[column][size + i] = intern(roster.string(column, i));
+                columns[HEADSHOT_HEIGHT][size + i] = roster.columns[HEADSHOT_HEIGHT][i];
+                columns[HEADSHOT_WIDTH][size + i] = roster.columns[HEADSHOT_WIDTH][i];
+                if (roster.headshots.get(i)) headshots.set(size + i);
+            }
+            socialLinks.addAll(roster.socialLinks);
+            size += roster.size;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @NonNull
+        public ColumnarRoster build() {
+            int[][] built = new int[COLUMNS][];
+            for (int column = 0; column < COLUMNS; column++)
+                built[column] = Arrays.copyOf(columns[column], size);
+            return new ColumnarRoster(size,
+                    strings.toArray(new String[strings.size()]),
+                    built,
+                    (BitSet) headshots.clone(),
+                    new ArrayList<>(socialLinks));
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= columns[ID].length) return;
+            capacity = Math.max(capacity, columns[ID].length * 2);
+            for (int column = 0; column < COLUMNS; column++)
+                columns[column] = Arrays.copyOf(columns[column], capacity);
+        }
+
+        private int intern(String value) {
+            if (value == null) return NONE;
+            Integer index = pool.get(value);
+            if (index == null) {
+                index = strings.size();
+                pool.put(value, index);
+                strings.add(value);
+            }
+            return index;
+        }
+    }
+}
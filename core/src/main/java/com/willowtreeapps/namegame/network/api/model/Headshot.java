@@ -1,9 +1,6 @@
 package com.willowtreeapps.namegame.network.api.model;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-
-public class Headshot implements Parcelable {
+public class Headshot {
 
     private String type;
     private String mimeType;
@@ -29,16 +26,6 @@ public class Headshot implements Parcelable {
         this.width = width;
     }
 
-    private Headshot(Parcel in) {
-        this.type = in.readString();
-        this.mimeType = in.readString();
-        this.id = in.readString();
-        this.url = in.readString();
-        this.alt = in.readString();
-        this.height = in.readInt();
-        this.width = in.readInt();
-    }
-
     public String getType() {
         return type;
     }
@@ -68,30 +55,21 @@ public class Headshot implements Parcelable {
     }
 
     @Override
-    public void writeToParcel(Parcel dest, int flags) {
-        dest.writeString(this.type);
-        dest.writeString(this.mimeType);
-        dest.writeString(this.id);
-        dest.writeString(this.url);
-        dest.writeString(this.alt);
-        dest.writeInt(this.height);
-        dest.writeInt(this.width);
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Headshot)) return false;
+        Headshot that = (Headshot) o;
+        return height == that.height &&
+                width == that.width &&
+                (type == null ? that.type == null : type.equals(that.type)) &&
+                (mimeType == null ? that.mimeType == null : mimeType.equals(that.mimeType)) &&
+                (id == null ? that.id == null : id.equals(that.id)) &&
+                (url == null ? that.url == null : url.equals(that.url)) &&
+                (alt == null ? that.alt == null : alt.equals(that.alt));
     }
 
-    public static final Creator<Headshot> CREATOR = new Creator<Headshot>() {
-        @Override
-        public Headshot createFromParcel(Parcel source) {
-            return new Headshot(source);
-        }
-
-        @Override
-        public Headshot[] newArray(int size) {
-            return new Headshot[size];
-        }
-    };
-
     @Override
-    public int describeContents() {
-        return 0;
+    public int hashCode() {
+        return url == null ? 0 : url.hashCode();
     }
 }
@@ -0,0 +1,26 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+public class Metadata {
+
+    private final int skip;
+    private final int limit;
+    private final int total;
+
+    public Metadata(int skip, int limit, int total) {
+        this.skip = skip;
+        this.limit = limit;
+        this.total = total;
+    }
+
+    public int getSkip() {
+        return skip;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
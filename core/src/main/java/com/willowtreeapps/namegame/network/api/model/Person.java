@@ -0,0 +1,85 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+import java.util.List;
+
+public class Person {
+    // Pojo
+    private final String id;
+    private final String type;
+    private final String slug;
+    private final String jobTitle;
+    private final String firstName;
+    private final String lastName;
+    private final Headshot headshot;
+    private final List<SocialLinks> socialLinks;
+
+    public Person(String id,
+                  String type,
+                  String slug,
+                  String jobTitle,
+                  String firstName,
+                  String lastName,
+                  Headshot headshot,
+                  List<SocialLinks> socialLinks) {
+        this.id = id;
+        this.type = type;
+        this.slug = slug;
+        this.jobTitle = jobTitle;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.headshot = headshot;
+        this.socialLinks = socialLinks;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public Headshot getHeadshot() {
+        return headshot;
+    }
+
+    public List<SocialLinks> getSocialLinks() {
+        return socialLinks;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Person)) return false;
+        Person that = (Person) o;
+        return (id == null ? that.id == null : id.equals(that.id)) &&
+                (type == null ? that.type == null : type.equals(that.type)) &&
+                (slug == null ? that.slug == null : slug.equals(that.slug)) &&
+                (jobTitle == null ? that.jobTitle == null : jobTitle.equals(that.jobTitle)) &&
+                (firstName == null ? that.firstName == null : firstName.equals(that.firstName)) &&
+                (lastName == null ? that.lastName == null : lastName.equals(that.lastName)) &&
+                (headshot == null ? that.headshot == null : headshot.equals(that.headshot)) &&
+                (socialLinks == null ? that.socialLinks == null : socialLinks.equals(that.socialLinks));
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? 0 : id.hashCode();
+    }
+}
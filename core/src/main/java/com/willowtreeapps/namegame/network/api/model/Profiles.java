@@ -0,0 +1,22 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+import java.util.List;
+
+public class Profiles {
+
+    private List<Person> items;
+    private Metadata meta;
+
+    public Profiles(List<Person> items, Metadata meta) {
+        this.items = items;
+        this.meta = meta;
+    }
+
+    public List<Person> getPeople() {
+        return items;
+    }
+
+    public Metadata getMetadata() {
+        return meta;
+    }
+}
@@ -0,0 +1,43 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+// Simple POJO to help satisfy the spec for the response body
+public class SocialLinks {
+    private final String mType;
+    private final String mCallToAction;
+    private final String mUrl;
+
+    public SocialLinks(String type,
+                       String callToAction,
+                       String url) {
+        this.mType = type;
+        this.mCallToAction = callToAction;
+        this.mUrl = url;
+    }
+
+    public String getType() {
+        return mType;
+    }
+
+    public String getCallToAction() {
+        return mCallToAction;
+    }
+
+    public String getUrl() {
+        return mUrl;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SocialLinks)) return false;
+        SocialLinks that = (SocialLinks) o;
+        return (mType == null ? that.mType == null : mType.equals(that.mType)) &&
+                (mCallToAction == null ? that.mCallToAction == null : mCallToAction.equals(that.mCallToAction)) &&
+                (mUrl == null ? that.mUrl == null : mUrl.equals(that.mUrl));
+    }
+
+    @Override
+    public int hashCode() {
+        return mUrl == null ? 0 : mUrl.hashCode();
+    }
+}
@@ -0,0 +1,85 @@
+package com.willowtreeapps.namegame.util;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * <p>Copy-on-write set of listeners. Registering and unregistering copy the array of listeners
+ * under a lock; dispatching reads the current array once, without locking or allocating, so it
+ * is safe from any thread while listeners come and go.</p>
+ * <p>Listeners are notified in the order they registered, on the thread that dispatches. A
+ * dispatch delivers to the listeners registered when it starts: a listener that registers during
+ * it waits for the next event, and one that unregisters during it may still receive it.</p>
+ */
+public final class ListenerRegistry<L> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final Object lock = new Object();
+    private volatile Object[] listeners = EMPTY;
+
+    /**
+     * @return false if listener was already registered
+     */
+    public boolean add(@NonNull L listener) {
+        synchronized (lock) {
+            Object[] current = listeners;
+            if (indexOf(current, listener) >= 0) return false;
+            Object[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = listener;
+            listeners = next;
+            return true;
+        }
+    }
+
+    /**
+     * @return false if listener was not registered
+     */
+    public boolean remove(@NonNull L listener) {
+        synchronized (lock) {
+            Object[] current = listeners;
+            int index = indexOf(current, listener);
+            if (index < 0) return false;
+            if (current.length == 1) {
+                listeners = EMPTY;
+                return true;
+            }
+            Object[] next = new Object[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, next.length - index);
+            listeners = next;
+            return true;
+        }
+    }
+
+    public boolean contains(@NonNull L listener) {
+        return indexOf(listeners, listener) >= 0;
+    }
+
+    public int size() {
+        return listeners.length;
+    }
+
+    /**
+     * Delivers value to each listener through event. Events held in constants make dispatch
+     * allocation-free
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void dispatch(@NonNull Event<L, T> event, T value) {
+        // One volatile read; the array is never modified once published
+        Object[] snapshot = listeners;
+        for (Object listener : snapshot)
+            event.deliver((L) listener, value);
+    }
+
+    private static int indexOf(Object[] listeners, Object listener) {
+        for (int i = 0; i < listeners.length; i++)
+            if (listeners[i].equals(listener)) return i;
+        return -1;
+    }
+
+    public interface Event<L, T> {
+        void deliver(@NonNull L listener, T value);
+    }
+}
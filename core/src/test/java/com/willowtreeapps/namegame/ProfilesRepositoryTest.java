@@ -0,0 +1,342 @@
+package com.willowtreeapps.namegame;
+
+import android.support.annotation.NonNull;
+
+import com.willowtreeapps.namegame.network.api.NameGameApi;
+import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.ProfilesSnapshot;
+import com.willowtreeapps.namegame.network.api.RosterDelta;
+import com.willowtreeapps.namegame.network.api.model.Metadata;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProfilesRepositoryTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<Person> PROFILES;
+
+    static {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person("1", null, null, null, "Bill", "Smith", null, null));
+        people.add(new Person("2", null, null, null, "Pam", "White", null, null));
+        people.add(new Person("3", null, null, null, "Fred", "Doe", null, null));
+        PROFILES = people;
+    }
+
+    @Test
+    public void should_throw_for_multiple_registration_of_one_listener() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        ProfilesRepository repo = new ProfilesRepository(api);
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        repo.register(listener);
+        thrown.expect(IllegalStateException.class);
+        repo.register(listener);
+    }
+
+    @Test
+    public void should_allow_registration_of_multiple_listeners() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        ProfilesRepository repo = new ProfilesRepository(api);
+        ProfilesRepository.Listener one = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository.Listener two = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository.Listener three = mock(ProfilesRepository.Listener.class);
+        repo.register(one);
+        repo.register(two);
+        repo.register(three);
+    }
+
+    @Test
+    public void should_notify_new_registrants_on_success() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        ProfilesRepository repo = new ProfilesRepository(api);
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        repo.register(listener);
+        verify(listener, times(1)).onLoadSuccess(any(List.class));
+    }
+
+    @Test
+    public void should_not_notify_new_registrants_on_load_failure() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.<List<Person>>forError());
+        ProfilesRepository repo = new ProfilesRepository(api);
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        repo.register(listener);
+        verify(listener, times(0)).onLoadSuccess(any(List.class));
+    }
+
+    @Test
+    public void should_notify_existing_registrants_on_load_failure() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.<List<Person>>forError());
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, listener);
+        verify(listener, times(1)).onError(any(IOException.class));
+    }
+
+    @Test
+    public void should_attach_concurrent_refreshes_to_the_call_in_flight() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        DeferredCall<List<Person>> call = new DeferredCall<>();
+        when(api.getProfiles()).thenReturn(call);
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, listener);
+
+        repo.refresh();
+        repo.refresh();
+        verify(api, times(1)).getProfiles();
+
+        call.succeed(PROFILES);
+        verify(listener, times(1)).onLoadSuccess(PROFILES);
+    }
+
+    @Test
+    public void should_notify_listeners_but_not_delta_listeners_of_unchanged_profiles() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        when(api.revalidateProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, listener);
+        ProfilesRepository.DeltaListener deltaListener = mock(ProfilesRepository.DeltaListener.class);
+        repo.registerDeltaListener(deltaListener);
+
+        // Every refresh ends in a notification, though the roster is the same
+        repo.refresh();
+        verify(api, times(1)).revalidateProfiles();
+        verify(listener, times(2)).onLoadSuccess(PROFILES);
+        verify(deltaListener, times(1)).onRosterChanged(any(RosterDelta.class));
+    }
+
+    @Test
+    public void should_notify_the_failure_to_revalidate_the_snapshot_yet_keep_it() throws Exception {
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        File file = folder.newFile();
+        new ProfilesSnapshot(file, direct, direct).write(PROFILES);
+
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.revalidateProfiles()).thenReturn(SynchronousCallAdapter.<List<Person>>forError());
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, new ProfilesSnapshot(file, direct, direct),
+                listener);
+
+        verify(listener, times(1)).onLoadSuccess(PROFILES);
+        verify(listener, times(1)).onError(any(IOException.class));
+        Assert.assertEquals(PROFILES, repo.getProfiles());
+        Assert.assertEquals(ProfilesRepository.ResponseOutcome.SUCCESS, repo.getResponseOutcome());
+    }
+
+    @Test
+    public void should_notify_delta_listeners_of_what_changed() throws Exception {
+        List<Person> changed = new ArrayList<>(PROFILES.subList(0, 2));
+        changed.add(new Person("4", null, null, null, "Joe", "Black", null, null));
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        when(api.revalidateProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(changed));
+        ProfilesRepository repo = new ProfilesRepository(api);
+        final List<RosterDelta> deltas = new ArrayList<>();
+        repo.registerDeltaListener(new ProfilesRepository.DeltaListener() {
+            @Override
+            public void onRosterChanged(@NonNull RosterDelta delta) {
+                deltas.add(delta);
+            }
+        });
+
+        repo.refresh();
+        Assert.assertEquals(2, deltas.size());
+        // Registering replays the loaded roster as added
+        Assert.assertEquals(PROFILES, deltas.get(0).added());
+        Assert.assertEquals(1, deltas.get(1).added().size());
+        Assert.assertEquals("4", deltas.get(1).added().get(0).getId());
+        Assert.assertEquals("3", deltas.get(1).removed().get(0).getId());
+        Assert.assertTrue(deltas.get(1).changed().isEmpty());
+    }
+
+    @Test
+    public void should_publish_pages_in_order_as_they_join_the_first() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        DeferredCall<Profiles> first = new DeferredCall<>();
+        DeferredCall<Profiles> second = new DeferredCall<>();
+        DeferredCall<Profiles> third = new DeferredCall<>();
+        when(api.getProfilesPage(0, 1)).thenReturn(first);
+        when(api.getProfilesPage(1, 1)).thenReturn(second);
+        when(api.getProfilesPage(2, 1)).thenReturn(third);
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, null, 1, listener);
+
+        first.succeed(page(0));
+        verify(listener, times(1)).onLoadSuccess(PROFILES.subList(0, 1));
+        Assert.assertTrue(repo.isPartial());
+
+        // The third page waits for the second
+        third.succeed(page(2));
+        verify(listener, times(1)).onLoadSuccess(anyList());
+
+        second.succeed(page(1));
+        verify(listener, times(1)).onLoadSuccess(PROFILES);
+        Assert.assertFalse(repo.isPartial());
+        Assert.assertEquals(ProfilesRepository.ResponseOutcome.SUCCESS, repo.getResponseOutcome());
+    }
+
+    @Test
+    public void should_publish_the_pages_again_once_they_double() throws Exception {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            people.add(new Person(String.valueOf(i), null, null, null, "First" + i, "Last" + i, null, null));
+        NameGameApi api = mock(NameGameApi.class);
+        List<DeferredCall<Profiles>> calls = new ArrayList<>();
+        for (int i = 0; i < people.size(); i++) {
+            DeferredCall<Profiles> call = new DeferredCall<>();
+            calls.add(call);
+            when(api.getProfilesPage(i, 1)).thenReturn(call);
+        }
+        final List<Integer> sizes = new ArrayList<>();
+        ProfilesRepository repo = new ProfilesRepository(api, null, 1, new ProfilesRepository.Listener() {
+            @Override
+            public void onLoadSuccess(@NonNull List<Person> loaded) {
+                sizes.add(loaded.size());
+            }
+
+            @Override
+            public void onError(@NonNull Throwable error) {
+            }
+        });
+
+        for (int i = 0; i < people.size(); i++)
+            calls.get(i).succeed(new Profiles(people.subList(i, i + 1), new Metadata(i, 1, people.size())));
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8), sizes);
+        Assert.assertEquals(people, repo.getProfiles());
+        Assert.assertFalse(repo.isPartial());
+    }
+
+    @Test
+    public void should_fail_a_paged_load_on_any_failed_page() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfilesPage(0, 1)).thenReturn(SynchronousCallAdapter.forSuccess(page(0)));
+        when(api.getProfilesPage(1, 1)).thenReturn(SynchronousCallAdapter.<Profiles>forError(),
+                SynchronousCallAdapter.forSuccess(page(1)));
+        when(api.getProfilesPage(2, 1)).thenReturn(SynchronousCallAdapter.forSuccess(page(2)));
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, null, 1, listener);
+
+        verify(listener, times(1)).onError(any(IOException.class));
+        // The first page stays playable until a refresh loads them all again
+        Assert.assertTrue(repo.isPartial());
+        Assert.assertEquals(PROFILES.subList(0, 1), repo.getProfiles());
+        Assert.assertEquals(ProfilesRepository.ResponseOutcome.SUCCESS, repo.getResponseOutcome());
+
+        repo.refresh();
+        verify(api, never()).revalidateProfiles();
+        verify(api, times(2)).getProfilesPage(0, 1);
+        // Nor is the first page published again, as it adds no one
+        verify(listener, times(1)).onLoadSuccess(PROFILES.subList(0, 1));
+        verify(listener, times(1)).onLoadSuccess(PROFILES);
+        Assert.assertFalse(repo.isPartial());
+    }
+
+    @Test
+    public void should_fail_a_paged_load_on_a_short_first_page() throws Exception {
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.getProfilesPage(0, 2)).thenReturn(SynchronousCallAdapter.forSuccess(
+                new Profiles(Collections.<Person>emptyList(), new Metadata(0, 2, PROFILES.size()))));
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, null, 2, listener);
+
+        verify(listener, times(1)).onError(any(IOException.class));
+        verify(listener, never()).onLoadSuccess(anyList());
+        verify(api, never()).getProfilesPage(2, 2);
+        Assert.assertEquals(ProfilesRepository.ResponseOutcome.FAIL, repo.getResponseOutcome());
+    }
+
+    @Test
+    public void should_read_the_snapshot_off_the_calling_thread_then_revalidate_it() throws Exception {
+        final List<Runnable> background = new ArrayList<>();
+        Executor queue = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                background.add(command);
+            }
+        };
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        File file = folder.newFile();
+        new ProfilesSnapshot(file, direct, direct).write(PROFILES);
+
+        NameGameApi api = mock(NameGameApi.class);
+        when(api.revalidateProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(PROFILES));
+        ProfilesRepository.Listener listener = mock(ProfilesRepository.Listener.class);
+        ProfilesRepository repo = new ProfilesRepository(api, new ProfilesSnapshot(file, queue, direct),
+                listener);
+        // Nothing was read yet, nor requested
+        verify(listener, never()).onLoadSuccess(anyList());
+        verify(api, never()).revalidateProfiles();
+        Assert.assertEquals(ProfilesRepository.ResponseOutcome.IN_PROGRESS, repo.getResponseOutcome());
+
+        background.get(0).run();
+        // Once served from the snapshot, then confirmed by the revalidation
+        verify(listener, times(2)).onLoadSuccess(PROFILES);
+        verify(api, times(1)).revalidateProfiles();
+        verify(api, never()).getProfiles();
+    }
+
+    private static Profiles page(int skip) {
+        return new Profiles(Collections.singletonList(PROFILES.get(skip)),
+                new Metadata(skip, 1, PROFILES.size()));
+    }
+
+    /**
+     * Holds on to its callback until told how to complete
+     */
+    private static class DeferredCall<T> extends CallAdapter<T> {
+        private Callback<T> callback;
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            this.callback = callback;
+        }
+
+        void succeed(T body) {
+            callback.onResponse(this, Response.success(body));
+        }
+    }
+}
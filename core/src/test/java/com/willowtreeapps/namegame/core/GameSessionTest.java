@@ -0,0 +1,395 @@
+package com.willowtreeapps.namegame.core;
+
+import com.willowtreeapps.namegame.SynchronousCallAdapter;
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.NameIndex;
+import com.willowtreeapps.namegame.core.gamelogic.RecallScheduler;
+import com.willowtreeapps.namegame.core.gamelogic.SplitMix64;
+import com.willowtreeapps.namegame.core.history.HistoryStore;
+import com.willowtreeapps.namegame.network.api.NameGameApi;
+import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Metadata;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GameSessionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private NameGameApi api;
+    private List<Person> roster;
+
+    @Before
+    public void setUp() throws Exception {
+        api = mock(NameGameApi.class);
+        roster = roster("a", 100);
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(roster));
+    }
+
+    @Test
+    public void should_play_sessions_independently() throws Exception {
+        GameLogic gameLogic = newGameLogic();
+        gameLogic.newGame(GameLogic.Mode.STANDARD);
+        List<Person> appThumbs = gameLogic.getPeopleLogic().currentThumbs();
+
+        GameSession one = gameLogic.newSession(GameLogic.Mode.STANDARD);
+        GameSession two = gameLogic.newSession(GameLogic.Mode.REVERSE);
+        one.next();
+        two.next();
+        List<Person> thumbs = one.currentThumbs();
+        two.next();
+
+        Assert.assertSame(thumbs, one.currentThumbs());
+        Assert.assertSame(appThumbs, gameLogic.getPeopleLogic().currentThumbs());
+        Assert.assertEquals(GameLogic.Mode.REVERSE, two.getMode());
+        Assert.assertEquals(GameLogic.Mode.STANDARD, gameLogic.getMode());
+    }
+
+    @Test
+    public void should_play_sessions_on_many_threads() throws Exception {
+        final GameLogic gameLogic = newGameLogic();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int mode = t % 5;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        GameSession session = gameLogic.newSession(mode);
+                        for (int round = 0; round < 10000; round++) {
+                            session.next();
+                            session.onItemSelected(session.correctItemIndex());
+                            if (mode != GameLogic.Mode.REVERSE && !session.isCorrect())
+                                throw new AssertionError("Wrong answer in mode " + mode);
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        Assert.assertNull(failure.get());
+    }
+
+    @Test
+    public void should_follow_roster_reloads() throws Exception {
+        List<Person> reloaded = roster("b", 50);
+        when(api.revalidateProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(reloaded));
+        ProfilesRepository repository = new ProfilesRepository(api);
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(1)), repository);
+        GameSession session = gameLogic.newSession(GameLogic.Mode.STANDARD);
+        session.next();
+
+        repository.refresh();
+        session.next();
+        Set<Person> current = new HashSet<>(reloaded);
+        for (Person person : session.currentThumbs())
+            Assert.assertTrue(current.contains(person));
+        for (Person person : session.upcomingThumbs())
+            Assert.assertTrue(current.contains(person));
+    }
+
+    @Test
+    public void should_keep_the_rounds_picked_ahead_as_pages_arrive() throws Exception {
+        when(api.getProfilesPage(0, 50)).thenReturn(SynchronousCallAdapter.forSuccess(
+                new Profiles(roster.subList(0, 50), new Metadata(0, 50, 100))));
+        @SuppressWarnings("unchecked")
+        Call<Profiles> second = mock(Call.class);
+        when(api.getProfilesPage(50, 50)).thenReturn(second);
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(1)),
+                new ProfilesRepository(api, null, 50));
+        GameSession session = gameLogic.newSession(GameLogic.Mode.STANDARD);
+        session.next();
+        List<Person> upcoming = session.upcomingThumbs();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Callback<Profiles>> callback = ArgumentCaptor.forClass((Class) Callback.class);
+        verify(second).enqueue(callback.capture());
+        callback.getValue().onResponse(second,
+                Response.success(new Profiles(roster.subList(50, 100), new Metadata(50, 50, 100))));
+        Assert.assertEquals(100, gameLogic.getRosterIndex().size());
+
+        session.next();
+        Assert.assertEquals(upcoming.subList(0, 6), session.currentThumbs());
+    }
+
+    @Test
+    public void should_start_on_the_first_page_that_fills_a_round() throws Exception {
+        // Nobody of the first page is eligible for the MAT mode, everybody of the second is
+        List<Person> ineligible = new ArrayList<>();
+        List<Person> eligible = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ineligible.add(roster.get(2 * i + 1));
+            eligible.add(roster.get(2 * i));
+        }
+        when(api.getProfilesPage(0, 10)).thenReturn(SynchronousCallAdapter.forSuccess(
+                new Profiles(ineligible, new Metadata(0, 10, 20))));
+        @SuppressWarnings("unchecked")
+        Call<Profiles> second = mock(Call.class);
+        when(api.getProfilesPage(10, 10)).thenReturn(second);
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(1)),
+                new ProfilesRepository(api, null, 10));
+        GameLogic.Listener listener = mock(GameLogic.Listener.class);
+        gameLogic.register(listener);
+
+        Assert.assertTrue(gameLogic.newGame(GameLogic.Mode.STANDARD));
+        Assert.assertFalse(gameLogic.newGame(GameLogic.Mode.MAT));
+        verify(listener, times(1)).onGameLogicLoadSuccess(any(GameLogic.PeopleLogic.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Callback<Profiles>> callback = ArgumentCaptor.forClass((Class) Callback.class);
+        verify(second).enqueue(callback.capture());
+        callback.getValue().onResponse(second,
+                Response.success(new Profiles(eligible, new Metadata(10, 10, 20))));
+        verify(listener, times(2)).onGameLogicLoadSuccess(any(GameLogic.PeopleLogic.class));
+        for (Person person : gameLogic.getPeopleLogic().currentThumbs())
+            Assert.assertTrue(person.getFirstName().startsWith("Matt"));
+    }
+
+    @Test
+    public void should_answer_a_typed_round_with_a_suggestion() throws Exception {
+        GameSession session = newGameLogic().newSession(GameLogic.Mode.TYPE_NAME);
+        session.next();
+        Person face = session.currentThumbs().get(0);
+        Assert.assertNotNull(face.getHeadshot());
+
+        NameIndex.Cursor cursor = session.cursor();
+        String name = face.getFirstName() + " " + face.getLastName();
+        for (int i = 0; i < name.length(); i++)
+            cursor.type(name.charAt(i));
+        int[] suggestions = new int[4];
+        Assert.assertEquals(1, cursor.suggestions(suggestions));
+        Assert.assertEquals(session.correctItemIndex(), suggestions[0]);
+        Assert.assertEquals(face.getId(), session.suggested(suggestions[0]).getId());
+
+        session.onItemSelected(suggestions[0]);
+        Assert.assertTrue(session.isCorrect());
+        Assert.assertTrue(session.fullyRevealItems());
+        session.next();
+        Assert.assertEquals(0, session.cursor().length());
+        Assert.assertFalse(session.fullyRevealItems());
+
+        // A stale suggestion from a roster since replaced is wrong, not a crash
+        session.onItemSelected(Integer.MAX_VALUE);
+        Assert.assertFalse(session.isCorrect());
+    }
+
+    @Test
+    public void should_forgive_typos_in_a_typed_answer() throws Exception {
+        GameSession session = newGameLogic().newSession(GameLogic.Mode.TYPE_NAME);
+        session.next();
+        Person face = session.currentThumbs().get(0);
+
+        Assert.assertFalse(session.fullyRevealItems());
+        Assert.assertTrue(session.answer(face.getFirstName().toUpperCase() + " " + face.getLastName() + " "));
+        Assert.assertTrue(session.isCorrect());
+        Assert.assertTrue(session.fullyRevealItems());
+        Assert.assertFalse(session.answer("Somebody Else"));
+        Assert.assertFalse(session.isCorrect());
+    }
+
+    @Test
+    public void should_ask_again_soon_whom_the_player_missed() throws Exception {
+        GameLogic gameLogic = newGameLogic();
+        GameSession session = gameLogic.newSession(GameLogic.Mode.SPACED);
+        session.next();
+        Person missed = session.currentNames().get(0);
+        Assert.assertNotNull(missed.getHeadshot());
+        Assert.assertEquals(missed, session.currentThumbs().get(session.correctItemIndex()));
+        session.onItemSelected((session.correctItemIndex() + 1) % session.numberOfPeople());
+        Assert.assertFalse(session.isCorrect());
+        // Only the first answer of a round counts
+        session.onItemSelected(session.correctItemIndex());
+        Assert.assertEquals(0, gameLogic.getScheduler().box(missed.getId()));
+        Assert.assertEquals(1, gameLogic.getScheduler().round());
+
+        // Past the rounds already picked ahead, the missed person is asked again
+        boolean askedAgain = false;
+        for (int round = 0; round < 4 && !askedAgain; round++) {
+            session.next();
+            askedAgain = session.currentNames().get(0).equals(missed);
+            session.onItemSelected(session.correctItemIndex());
+        }
+        Assert.assertTrue(askedAgain);
+        Assert.assertEquals(1, gameLogic.getScheduler().box(missed.getId()));
+    }
+
+    @Test
+    public void should_review_whom_the_player_missed_more_often() throws Exception {
+        GameLogic gameLogic = newGameLogic();
+        Person missed = roster.get(10);
+        gameLogic.recordAnswer(missed.getId(), false);
+        int position = gameLogic.getRosterIndex().positionOf(missed.getId());
+        Assert.assertEquals(8, gameLogic.getWeights().sampler().weight(position));
+        // Those without a headshot are never drawn
+        Assert.assertEquals(0, gameLogic.getWeights().sampler().weight(position + 1));
+
+        GameSession session = gameLogic.newSession(GameLogic.Mode.REVIEW);
+        int rounds = 5000;
+        int named = 0;
+        for (int round = 0; round < rounds; round++) {
+            session.next();
+            Assert.assertEquals(session.currentNames().get(0),
+                    session.currentThumbs().get(session.correctItemIndex()));
+            for (Person person : session.currentThumbs())
+                Assert.assertNotNull(person.getHeadshot());
+            if (session.currentNames().get(0).equals(missed)) named++;
+        }
+        // 8 out of 49 * 2 + 8, against 2 out of it for everyone else
+        Assert.assertEquals(rounds * 8 / 106.0, named, rounds * 0.02);
+
+        // Once recalled, they weigh less
+        gameLogic.recordAnswer(missed.getId(), true);
+        Assert.assertEquals(4, gameLogic.getWeights().sampler().weight(position));
+    }
+
+    @Test
+    public void should_review_a_roster_too_short_to_weigh() throws Exception {
+        // Only three of them have a headshot, short of a full round
+        when(api.getProfiles()).thenReturn(SynchronousCallAdapter.forSuccess(roster("b", 6)));
+        GameLogic gameLogic = newGameLogic();
+        Assert.assertEquals(3, gameLogic.getWeights().sampler().positive());
+
+        GameSession session = gameLogic.newSession(GameLogic.Mode.REVIEW);
+        for (int round = 0; round < 20; round++) {
+            session.next();
+            Assert.assertEquals(3, session.numberOfPeople());
+            Assert.assertEquals(session.currentNames().get(0),
+                    session.currentThumbs().get(session.correctItemIndex()));
+        }
+    }
+
+    @Test
+    public void should_reweigh_the_roster_by_a_scheduler_read_back() throws Exception {
+        GameLogic gameLogic = newGameLogic();
+        Person missed = roster.get(10);
+        int position = gameLogic.getRosterIndex().positionOf(missed.getId());
+        Assert.assertEquals(2, gameLogic.getWeights().sampler().weight(position));
+
+        RecallScheduler stored = new RecallScheduler();
+        stored.record(missed.getId(), false);
+        gameLogic.setScheduler(stored);
+        Assert.assertSame(stored, gameLogic.getScheduler());
+        Assert.assertEquals(8, gameLogic.getWeights().sampler().weight(position));
+
+        gameLogic.recordAnswer(missed.getId(), true);
+        Assert.assertEquals(1, stored.box(missed.getId()));
+        Assert.assertEquals(4, gameLogic.getWeights().sampler().weight(position));
+    }
+
+    @Test
+    public void should_record_the_first_answer_of_each_round() throws Exception {
+        HistoryStore history = new HistoryStore(folder.newFolder(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(1)),
+                new ProfilesRepository(api), new RecallScheduler(), history);
+        Assert.assertSame(history, gameLogic.getHistory());
+
+        GameSession session = gameLogic.newSession(GameLogic.Mode.STANDARD);
+        session.next();
+        Person missed = session.currentNames().get(0);
+        session.onItemSelected((session.correctItemIndex() + 1) % session.numberOfPeople());
+        session.onItemSelected(session.correctItemIndex());
+        for (int round = 0; round < 4; round++) {
+            session.next();
+            session.onItemSelected(session.correctItemIndex());
+        }
+        GameSession reverse = gameLogic.newSession(GameLogic.Mode.REVERSE);
+        reverse.next();
+        reverse.onItemSelected(reverse.correctItemIndex());
+        Assert.assertTrue(reverse.isCorrect());
+
+        Assert.assertEquals(6, history.totals().getAnswered());
+        Assert.assertEquals(5, history.totals().getCorrect());
+        Assert.assertEquals(0, history.stats(missed.getId()).getCorrect());
+        Assert.assertTrue(history.stats(missed.getId()).getAnswered() >= 1);
+    }
+
+    @Test
+    public void should_time_the_answer_from_when_the_round_is_shown() throws Exception {
+        HistoryStore history = new HistoryStore(folder.newFolder(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(1)),
+                new ProfilesRepository(api), new RecallScheduler(), history);
+        GameSession session = gameLogic.newSession(GameLogic.Mode.STANDARD);
+        session.next();
+        // As if the headshots took a while to load
+        Thread.sleep(300);
+        session.onRoundShown();
+        session.onItemSelected(session.correctItemIndex());
+
+        Assert.assertEquals(1, history.totals().getAnswered());
+        Assert.assertTrue(history.totals().getTotalLatencyMillis() < 300);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_not_type_in_other_modes() throws Exception {
+        GameSession session = newGameLogic().newSession(GameLogic.Mode.STANDARD);
+        session.next();
+        session.cursor();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_not_play_before_the_roster_loads() throws Exception {
+        @SuppressWarnings("unchecked")
+        Call<List<Person>> pending = mock(Call.class);
+        when(api.getProfiles()).thenReturn(pending);
+        newGameLogic().newSession(GameLogic.Mode.STANDARD).next();
+    }
+
+    private GameLogic newGameLogic() {
+        return new GameLogic(new ListRandomizer(new SplitMix64(1)), new ProfilesRepository(api));
+    }
+
+    private static List<Person> roster(String prefix, int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Half of them are eligible for the filtered modes
+            Headshot headshot = i % 2 == 0 ?
+                    new Headshot(null, "image/jpeg", prefix + i, "//images/" + prefix + i, null, 340, 340) :
+                    null;
+            people.add(new Person(prefix + i, null, null, null,
+                    (i % 2 == 0 ? "Matt" : "First") + i, "Last" + i, headshot, null));
+        }
+        return people;
+    }
+}
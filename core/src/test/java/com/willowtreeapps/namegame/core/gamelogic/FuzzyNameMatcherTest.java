@@ -0,0 +1,145 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class FuzzyNameMatcherTest {
+
+    private static final List<Person> ROSTER = Arrays.asList(
+            person("1", "William", "Smith"),
+            person("2", "Zo\u00eb", "Sch\u00e4fer"),
+            person("3", "J\u00fcrgen", "Stra\u00dfer"),
+            person("4", "John", "Smith"),
+            person("5", "Joan", "Smith"),
+            person("6", "Mary-Jane", "Watson"));
+
+    private static Person person(String id, String firstName, String lastName) {
+        return new Person(id, null, null, null, firstName, lastName, null, null);
+    }
+
+    @Test
+    public void should_reduce_names_to_a_canonical_form() throws Exception {
+        Assert.assertEquals("william smith", FuzzyNameMatcher.canonical("  Bill   SMITH "));
+        Assert.assertEquals("jurgen strasser", FuzzyNameMatcher.canonical("J\u00fcrgen Stra\u00dfer"));
+        Assert.assertEquals("mary jane watson", FuzzyNameMatcher.canonical("Mary-Jane Watson"));
+    }
+
+    @Test
+    public void should_accept_near_misses() throws Exception {
+        FuzzyNameMatcher matcher = FuzzyNameMatcher.of(ROSTER);
+        Assert.assertTrue(matcher.accepts("William Smith", 0));
+        Assert.assertTrue(matcher.accepts("bill smith", 0));
+        Assert.assertTrue(matcher.accepts("Wiliam Smyth", 0));
+        Assert.assertTrue(matcher.accepts("zoe schafer", 1));
+        Assert.assertTrue(matcher.accepts("Jurgen Strasser", 2));
+        Assert.assertTrue(matcher.accepts("mary jane watsn", 5));
+    }
+
+    @Test
+    public void should_reject_the_names_of_others() throws Exception {
+        FuzzyNameMatcher matcher = FuzzyNameMatcher.of(ROSTER);
+        // Within one edit of both, but John's exactly
+        Assert.assertFalse(matcher.accepts("John Smith", 4));
+        Assert.assertTrue(matcher.accepts("John Smith", 3));
+        Assert.assertFalse(matcher.accepts("Jim Smith", 0));
+        Assert.assertFalse(matcher.accepts("Watson", 5));
+    }
+
+    @Test
+    public void should_list_the_closest_people() throws Exception {
+        FuzzyNameMatcher matcher = FuzzyNameMatcher.of(ROSTER);
+        int[] out = new int[4];
+        Assert.assertEquals(2, matcher.closest("Joen Smith", out));
+        Arrays.sort(out, 0, 2);
+        Assert.assertArrayEquals(new int[]{3, 4}, Arrays.copyOf(out, 2));
+        Assert.assertEquals(0, matcher.closest("Nobody Here", out));
+    }
+
+    @Test
+    public void should_find_what_a_scan_finds() throws Exception {
+        Random random = new Random(3);
+        List<Person> roster = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            roster.add(person(String.valueOf(i), word(random), word(random)));
+        FuzzyNameMatcher matcher = FuzzyNameMatcher.of(roster);
+
+        int[] out = new int[64];
+        for (int i = 0; i < 200; i++) {
+            Person target = roster.get(random.nextInt(roster.size()));
+            String guess = typo(target.getFirstName() + " " + target.getLastName(), random);
+            int count = matcher.closest(guess, out);
+            int[] expected = scan(roster, guess);
+            Arrays.sort(out, 0, count);
+            Assert.assertArrayEquals(guess, expected, Arrays.copyOf(out, count));
+        }
+    }
+
+    @Test
+    public void should_reject_a_guess_one_edit_past_the_tolerance() throws Exception {
+        FuzzyNameMatcher matcher = FuzzyNameMatcher.of(Arrays.asList(
+                person("1", "Ann", "Lee"),
+                person("2", "Zed", "Quux")));
+        // "ann lee" allows one edit
+        Assert.assertEquals(1, FuzzyNameMatcher.tolerance("axx lee".length()));
+        Assert.assertTrue(matcher.accepts("Axn Lee", 0));
+        Assert.assertFalse(matcher.accepts("Axx Lee", 0));
+        Assert.assertFalse(matcher.accepts("an le", 0));
+        Assert.assertEquals(0, matcher.closest("Axx Lee", new int[2]));
+    }
+
+    private static int[] scan(List<Person> roster, String guess) {
+        String canonical = FuzzyNameMatcher.canonical(guess);
+        int best = FuzzyNameMatcher.tolerance(canonical.length());
+        List<Integer> closest = new ArrayList<>();
+        for (int i = 0; i < roster.size(); i++) {
+            Person person = roster.get(i);
+            int distance = distance(canonical,
+                    FuzzyNameMatcher.canonical(person.getFirstName() + " " + person.getLastName()));
+            if (distance < best) {
+                best = distance;
+                closest.clear();
+            }
+            if (distance == best) closest.add(i);
+        }
+        int[] result = new int[closest.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = closest.get(i);
+        return result;
+    }
+
+    private static int distance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+            d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++)
+            d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                d[i][j] = Math.min(d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String word(Random random) {
+        char[] word = new char[3 + random.nextInt(5)];
+        for (int i = 0; i < word.length; i++)
+            word[i] = (char) ('a' + random.nextInt(6));
+        return new String(word);
+    }
+
+    private static String typo(String name, Random random) {
+        StringBuilder builder = new StringBuilder(name);
+        int at = random.nextInt(builder.length());
+        if (builder.charAt(at) != ' ') builder.setCharAt(at, (char) ('a' + random.nextInt(6)));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class ListRandomizerTest {
+
+    private static final ListRandomizer.ListFilter<Integer> EVEN = new ListRandomizer.ListFilter<Integer>() {
+        @Override
+        public boolean accept(Integer item) {
+            return item % 2 == 0;
+        }
+    };
+
+    private ListRandomizer randomizer;
+    private List<Integer> items;
+
+    @Before
+    public void setUp() throws Exception {
+        randomizer = new ListRandomizer(new Random(42));
+        items = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            items.add(i);
+    }
+
+    @Test
+    public void should_pick_n_distinct_items() throws Exception {
+        for (int round = 0; round < 1000; round++) {
+            List<Integer> picks = randomizer.pickN(items, 6);
+            Assert.assertEquals(6, picks.size());
+            Assert.assertEquals(6, new HashSet<>(picks).size());
+        }
+    }
+
+    @Test
+    public void should_not_modify_source_list() throws Exception {
+        List<Integer> copy = new ArrayList<>(items);
+        randomizer.pickN(items, 6);
+        randomizer.pickN(items, 6, EVEN);
+        Assert.assertEquals(copy, items);
+    }
+
+    @Test
+    public void should_return_list_when_n_equals_size() throws Exception {
+        Assert.assertSame(items, randomizer.pickN(items, items.size()));
+    }
+
+    @Test
+    public void should_filter_a_list_of_exactly_n_items() throws Exception {
+        List<Integer> picks = randomizer.pickN(items, items.size(), EVEN);
+        Assert.assertEquals(items.size() / 2, picks.size());
+        for (int pick : picks)
+            Assert.assertEquals(0, pick % 2);
+    }
+
+    @Test
+    public void should_only_pick_accepted_items() throws Exception {
+        for (int round = 0; round < 1000; round++) {
+            List<Integer> picks = randomizer.pickN(items, 6, EVEN);
+            Assert.assertEquals(6, picks.size());
+            Assert.assertEquals(6, new HashSet<>(picks).size());
+            for (Integer pick : picks)
+                Assert.assertTrue(EVEN.accept(pick));
+        }
+    }
+
+    @Test
+    public void should_pick_fewer_when_not_enough_items_are_accepted() throws Exception {
+        List<Integer> mostlyOdd = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            mostlyOdd.add(2 * i + 1);
+        mostlyOdd.add(8);
+        mostlyOdd.add(10);
+
+        List<Integer> picks = randomizer.pickN(mostlyOdd, 6, EVEN);
+        Assert.assertEquals(2, picks.size());
+        Assert.assertTrue(picks.contains(8));
+        Assert.assertTrue(picks.contains(10));
+    }
+
+    @Test
+    public void should_only_pick_indexed_items() throws Exception {
+        BitSet even = new BitSet();
+        for (int i = 0; i < items.size(); i += 2)
+            even.set(i);
+        int[] index = FilterIndex.fromBits(even);
+        Assert.assertEquals(50, index.length);
+        for (int round = 0; round < 1000; round++) {
+            List<Integer> picks = randomizer.pickN(items, index, 6);
+            Assert.assertEquals(6, picks.size());
+            Assert.assertEquals(6, new HashSet<>(picks).size());
+            for (Integer pick : picks)
+                Assert.assertTrue(EVEN.accept(pick));
+        }
+    }
+
+    @Test
+    public void should_repeat_picks_of_a_seed() throws Exception {
+        ListRandomizer one = new ListRandomizer(new SplitMix64(3));
+        ListRandomizer two = new ListRandomizer(new SplitMix64(3));
+        for (int round = 0; round < 100; round++)
+            Assert.assertEquals(one.pickN(items, 6), two.pickN(items, 6));
+    }
+
+    @Test
+    public void should_split_into_an_independent_randomizer() throws Exception {
+        ListRandomizer parent = new ListRandomizer(new SplitMix64(3));
+        ListRandomizer child = parent.split();
+        // Splits of the same seed are reproducible
+        Assert.assertEquals(new ListRandomizer(new SplitMix64(3)).split().pickN(items, 6),
+                child.pickN(items, 6));
+        Assert.assertNotEquals(parent.pickN(items, 6), child.pickN(items, 6));
+    }
+
+    @Test
+    public void should_pick_every_position_uniformly() throws Exception {
+        int rounds = 60000;
+        int[] counts = new int[10];
+        List<Integer> small = items.subList(0, counts.length);
+        for (int round = 0; round < rounds; round++) {
+            // Count which item lands in the first slot
+            counts[randomizer.pickN(small, 3).get(0)]++;
+        }
+        int expected = rounds / counts.length;
+        for (int count : counts)
+            Assert.assertEquals(expected, count, expected * 0.1);
+    }
+
+    @Test
+    public void should_pick_by_weight() throws Exception {
+        int[] weights = new int[10];
+        for (int i = 0; i < weights.length; i++)
+            weights[i] = i % 5;
+        WeightedSampler sampler = new WeightedSampler(weights);
+        List<Integer> small = items.subList(0, weights.length);
+
+        int rounds = 60000;
+        int[] counts = new int[weights.length];
+        for (int round = 0; round < rounds; round++) {
+            List<Integer> picks = randomizer.pickN(small, sampler, 3);
+            Assert.assertEquals(3, new HashSet<>(picks).size());
+            counts[picks.get(0)]++;
+        }
+        // The first item drawn is drawn in proportion to its weight
+        for (int i = 0; i < weights.length; i++)
+            Assert.assertEquals(rounds * weights[i] / 20.0, counts[i], rounds * 0.01);
+        Assert.assertEquals(20, sampler.total());
+        Assert.assertEquals(3, sampler.weight(3));
+    }
+
+    @Test
+    public void should_pick_fewer_when_not_enough_items_weigh() throws Exception {
+        int[] weights = new int[items.size()];
+        weights[5] = 1;
+        weights[50] = 7;
+        List<Integer> picks = randomizer.pickN(items, new WeightedSampler(weights), 6);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(5, 50)), new HashSet<>(picks));
+        Assert.assertTrue(randomizer.pickN(items, new WeightedSampler(new int[items.size()]), 6).isEmpty());
+    }
+}
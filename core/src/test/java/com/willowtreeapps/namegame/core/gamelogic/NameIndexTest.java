@@ -0,0 +1,97 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class NameIndexTest {
+
+    private static final List<Person> ROSTER = Arrays.asList(
+            person("1", "Matt", "Smith"),
+            person("2", "Mathilde", "Dupr\u00e9"),
+            person("3", "Andr\u00e9", "Martin"),
+            person("4", "S\u00f8ren", "Matthews"),
+            person("5", "Pam", null));
+
+    private static Person person(String id, String firstName, String lastName) {
+        return new Person(id, null, null, null, firstName, lastName, null, null);
+    }
+
+    private static NameIndex.Cursor type(List<Person> roster, String text) {
+        NameIndex.Cursor cursor = NameIndex.of(roster).newCursor();
+        for (int i = 0; i < text.length(); i++)
+            cursor.type(text.charAt(i));
+        return cursor;
+    }
+
+    private static int[] suggestions(NameIndex.Cursor cursor) {
+        int[] out = new int[ROSTER.size()];
+        return Arrays.copyOf(out, cursor.suggestions(out));
+    }
+
+    @Test
+    public void should_match_first_and_last_names_by_prefix() throws Exception {
+        NameIndex.Cursor cursor = type(ROSTER, "mat");
+        // Matt, Mathilde, Martin is not, Matthews
+        Assert.assertArrayEquals(new int[]{1, 0, 3}, suggestions(cursor));
+    }
+
+    @Test
+    public void should_ignore_case_and_accents() throws Exception {
+        Assert.assertArrayEquals(new int[]{2}, suggestions(type(ROSTER, "ANDRE")));
+        Assert.assertArrayEquals(new int[]{1}, suggestions(type(ROSTER, "dupre")));
+        Assert.assertArrayEquals(new int[]{3}, suggestions(type(ROSTER, "Soren")));
+        Assert.assertArrayEquals(new int[]{2}, suggestions(type(ROSTER, "andr\u00c9")));
+    }
+
+    @Test
+    public void should_fold_accents_past_the_basic_latin_blocks() throws Exception {
+        // Latin Extended Additional, then Greek Extended
+        Assert.assertEquals('e', NameIndex.fold('\u1ebf'));
+        Assert.assertEquals('\u03b1', NameIndex.fold('\u1f00'));
+        // A Hangul syllable decomposes into letters, not accents, so it stays whole
+        Assert.assertEquals('\uac00', NameIndex.fold('\uac00'));
+        List<Person> roster = Arrays.asList(person("1", "Nguy\u1ec5n", "V\u0103n"));
+        Assert.assertArrayEquals(new int[]{0}, suggestions(type(roster, "nguyen")));
+    }
+
+    @Test
+    public void should_match_full_names() throws Exception {
+        Assert.assertArrayEquals(new int[]{0}, suggestions(type(ROSTER, "matt s")));
+        Assert.assertEquals(0, type(ROSTER, "matt x").count());
+    }
+
+    @Test
+    public void should_widen_again_on_erase() throws Exception {
+        NameIndex.Cursor cursor = type(ROSTER, "matth");
+        Assert.assertArrayEquals(new int[]{3}, suggestions(cursor));
+        cursor.erase();
+        cursor.erase();
+        Assert.assertEquals(3, cursor.length());
+        Assert.assertArrayEquals(new int[]{1, 0, 3}, suggestions(cursor));
+        cursor.clear();
+        Assert.assertEquals(0, cursor.length());
+        Assert.assertEquals(NameIndex.of(ROSTER).size(), cursor.count());
+    }
+
+    @Test
+    public void should_suggest_each_person_once() throws Exception {
+        // Matt Smith matches by first name and by full name
+        NameIndex.Cursor cursor = type(ROSTER, "matt");
+        Assert.assertEquals(3, cursor.count());
+        Assert.assertArrayEquals(new int[]{0, 3}, suggestions(cursor));
+        Assert.assertArrayEquals(new int[]{0, 3}, suggestions(cursor));
+    }
+
+    @Test
+    public void should_index_columnar_rosters_alike() throws Exception {
+        NameIndex.Cursor cursor = type(ColumnarRoster.copyOf(ROSTER), "mat");
+        Assert.assertArrayEquals(new int[]{1, 0, 3}, suggestions(cursor));
+        Assert.assertEquals(3, cursor.position(cursor.count() - 1));
+    }
+}
@@ -0,0 +1,124 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class RecallSchedulerTest {
+
+    private final ListRandomizer random = new ListRandomizer(new SplitMix64(3));
+
+    private static RosterIndex roster(int size) {
+        List<Person> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            people.add(new Person("p" + i, null, null, null, "First" + i, "Last" + i, null, null));
+        return new RosterIndex(ColumnarRoster.copyOf(people));
+    }
+
+    @Test
+    public void should_move_people_up_when_recalled_and_back_when_missed() throws Exception {
+        RecallScheduler scheduler = new RecallScheduler();
+        Assert.assertEquals(-1, scheduler.box("p0"));
+
+        scheduler.record("p0", true);
+        scheduler.record("p0", true);
+        Assert.assertEquals(2, scheduler.box("p0"));
+        for (int i = 0; i < RecallScheduler.boxes() * 2; i++)
+            scheduler.record("p0", true);
+        Assert.assertEquals(RecallScheduler.boxes() - 1, scheduler.box("p0"));
+
+        scheduler.record("p0", false);
+        Assert.assertEquals(0, scheduler.box("p0"));
+        Assert.assertEquals(1, scheduler.size());
+        Assert.assertEquals(RecallScheduler.boxes() * 2 + 3, scheduler.round());
+    }
+
+    @Test
+    public void should_ask_again_soon_whom_the_player_missed() throws Exception {
+        RosterIndex roster = roster(1000);
+        RecallScheduler scheduler = new RecallScheduler();
+        scheduler.record("p8", false);
+        scheduler.record("p7", true);
+        scheduler.record("p9", true);
+
+        // p8 is due first; p7 and p9 only later
+        Assert.assertEquals(8, scheduler.pick(roster, null, random));
+        Set<Integer> picks = new HashSet<>();
+        for (int i = 0; i < 3; i++)
+            picks.add(scheduler.pick(roster, null, random));
+        Assert.assertFalse(picks.contains(7) || picks.contains(8) || picks.contains(9));
+        Assert.assertEquals(6, scheduler.size());
+    }
+
+    @Test
+    public void should_pick_in_the_order_people_are_due() throws Exception {
+        RosterIndex roster = roster(50);
+        RecallScheduler scheduler = new RecallScheduler();
+        for (int i = 0; i < 50; i++)
+            scheduler.record("p" + i, i % 3 != 0);
+        // Run the clock past everyone else
+        for (int i = 0; i < 10; i++)
+            scheduler.record("p0", true);
+
+        // p2, in box 1, and p3, in box 0, are due the same round; the lower box comes first
+        List<Integer> picks = new ArrayList<>();
+        for (int i = 1; i < 50; i++)
+            picks.add(scheduler.pick(roster, null, random));
+        Assert.assertEquals(1, (int) picks.get(0));
+        Assert.assertEquals(3, (int) picks.get(1));
+        Assert.assertEquals(2, (int) picks.get(2));
+        Assert.assertEquals(49, new HashSet<>(picks).size());
+        Assert.assertFalse(picks.contains(0));
+    }
+
+    @Test
+    public void should_postpone_people_who_left_the_roster() throws Exception {
+        RecallScheduler scheduler = new RecallScheduler();
+        scheduler.record("gone", false);
+        scheduler.record("p1", false);
+        scheduler.record("p0", true);
+
+        RosterIndex roster = roster(2);
+        Assert.assertEquals(1, scheduler.pick(roster, null, random));
+        Assert.assertEquals(0, scheduler.box("gone"));
+    }
+
+    @Test
+    public void should_read_back_its_state() throws Exception {
+        RecallScheduler scheduler = new RecallScheduler();
+        for (int i = 0; i < 40; i++)
+            scheduler.record("p" + (i % 20), i % 7 != 0);
+
+        RecallScheduler read = RecallScheduler.read(new DataInputStream(
+                new ByteArrayInputStream(scheduler.toByteArray())));
+        Assert.assertEquals(scheduler.size(), read.size());
+        Assert.assertEquals(scheduler.round(), read.round());
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals(scheduler.box("p" + i), read.box("p" + i));
+
+        Assert.assertArrayEquals(scheduler.toByteArray(), read.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void should_not_presize_for_a_corrupt_count() throws Exception {
+        byte[] state = new RecallScheduler().toByteArray();
+        // The count is the last int of the header
+        state[12] = 0x7f;
+        RecallScheduler.read(new DataInputStream(new ByteArrayInputStream(state)));
+    }
+
+    @Test(expected = IOException.class)
+    public void should_reject_an_unknown_format() throws Exception {
+        RecallScheduler.read(new DataInputStream(new ByteArrayInputStream(new byte[8])));
+    }
+}
@@ -0,0 +1,77 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class RecallStoreTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<RecallScheduler> read(RecallStore store) {
+        final List<RecallScheduler> read = new ArrayList<>();
+        store.read(new RecallStore.ReadCallback() {
+            @Override
+            public void onRead(RecallScheduler scheduler) {
+                read.add(scheduler);
+            }
+        });
+        return read;
+    }
+
+    @Test
+    public void should_read_back_what_was_written() throws Exception {
+        File file = new File(folder.getRoot(), "recall.bin");
+        RecallStore store = new RecallStore(file, DIRECT, DIRECT);
+        Assert.assertEquals(0, read(store).get(0).size());
+
+        RecallScheduler scheduler = new RecallScheduler();
+        scheduler.record("p0", false);
+        scheduler.record("p1", true);
+        store.write(scheduler);
+
+        RecallScheduler read = read(new RecallStore(file, DIRECT, DIRECT)).get(0);
+        Assert.assertArrayEquals(scheduler.toByteArray(), read.toByteArray());
+    }
+
+    @Test
+    public void should_not_write_over_what_was_not_read_back_yet() throws Exception {
+        File file = new File(folder.getRoot(), "recall.bin");
+        RecallStore store = new RecallStore(file, DIRECT, DIRECT);
+        read(store);
+        RecallScheduler scheduler = new RecallScheduler();
+        scheduler.record("p0", false);
+        store.write(scheduler);
+
+        final List<Runnable> callbacks = new ArrayList<>();
+        RecallStore next = new RecallStore(file, DIRECT, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                callbacks.add(command);
+            }
+        });
+        List<RecallScheduler> read = read(next);
+        // A blank scheduler, as the game holds until the stored one is delivered
+        next.write(new RecallScheduler());
+        Assert.assertTrue(read.isEmpty());
+
+        callbacks.get(0).run();
+        Assert.assertEquals(0, read.get(0).box("p0"));
+        Assert.assertArrayEquals(scheduler.toByteArray(),
+                new RecallStore(file, DIRECT, DIRECT).read().toByteArray());
+    }
+}
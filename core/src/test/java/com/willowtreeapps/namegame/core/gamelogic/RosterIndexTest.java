@@ -0,0 +1,117 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import com.willowtreeapps.namegame.network.api.RosterDelta;
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RosterIndexTest {
+
+    private RosterIndex index;
+
+    private static Person person(String id, String firstName, String lastName, String jobTitle,
+                                 String url, int size) {
+        Headshot headshot = url == null ? null :
+                new Headshot("image", "image/jpeg", id, url, null, size, size);
+        return new Person(id, "people", null, jobTitle, firstName, lastName, headshot, null);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        List<Person> people = new ArrayList<>();
+        people.add(person("0", "Matt", "Smith", "Software Engineer", "//images/matt.jpg", 340));
+        people.add(person("1", "Pam", "White", "Designer", "//images/TEST.jpg", 340));
+        people.add(person("2", "Fred", "Matheson", "Senior Software Engineer", null, 0));
+        people.add(person("3", "Mathilde", "Doe", "Product Manager", "//images/mathilde.jpg", 120));
+        index = new RosterIndex(people);
+    }
+
+    @Test
+    public void should_evaluate_leaf_filters() throws Exception {
+        Assert.assertArrayEquals(new int[]{0, 2}, index.index(PersonFilters.jobTitleContains("ENGINEER")));
+        Assert.assertArrayEquals(new int[]{0, 2, 3}, index.index(PersonFilters.namePrefix("mat")));
+        Assert.assertArrayEquals(new int[]{0, 3}, index.index(PersonFilters.firstNameContains("mat")));
+        Assert.assertArrayEquals(new int[]{0, 1, 3}, index.index(PersonFilters.hasHeadshot()));
+        Assert.assertArrayEquals(new int[]{0, 1}, index.index(PersonFilters.headshotAtLeast(200, 200)));
+    }
+
+    @Test
+    public void should_combine_filters() throws Exception {
+        RosterFilter noGhost = PersonFilters.hasHeadshot()
+                .and(PersonFilters.headshotUrlContains("TEST").not());
+        Assert.assertArrayEquals(new int[]{0, 3}, index.index(noGhost));
+
+        RosterFilter either = PersonFilters.jobTitleContains("designer")
+                .or(PersonFilters.jobTitleContains("manager"));
+        Assert.assertArrayEquals(new int[]{1, 3}, index.index(either));
+    }
+
+    @Test
+    public void should_update_to_the_same_index_as_a_rebuild() throws Exception {
+        RosterFilter noGhost = PersonFilters.hasHeadshot()
+                .and(PersonFilters.headshotUrlContains("TEST").not());
+        index.index(noGhost);
+        index.index(PersonFilters.firstNameContains("mat"));
+
+        List<Person> next = new ArrayList<>();
+        next.add(person("4", "Matteo", "Rossi", "Designer", "//images/matteo.jpg", 340));
+        next.add(index.get(3));
+        next.add(person("1", "Pam", "White", "Designer", "//images/pam.jpg", 340));
+        next.add(index.get(0));
+        RosterIndex updated = index.update(RosterDelta.between(index.roster(), next));
+        RosterIndex rebuilt = new RosterIndex(next);
+
+        Assert.assertArrayEquals(rebuilt.index(noGhost), updated.index(noGhost));
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, updated.index(noGhost));
+        Assert.assertArrayEquals(rebuilt.index(PersonFilters.firstNameContains("mat")),
+                updated.index(PersonFilters.firstNameContains("mat")));
+    }
+
+    @Test
+    public void should_only_test_people_who_changed() throws Exception {
+        final int[] tested = new int[1];
+        RosterFilter counting = RosterFilter.of("counting", new ListRandomizer.ListFilter<Person>() {
+            @Override
+            public boolean accept(Person item) {
+                tested[0]++;
+                return item.getHeadshot() != null;
+            }
+        });
+        index.bits(counting);
+        Assert.assertEquals(4, tested[0]);
+
+        List<Person> next = new ArrayList<>(index.roster());
+        next.set(2, person("2", "Fred", "Matheson", "Senior Software Engineer", "//images/fred.jpg", 340));
+        RosterIndex updated = index.update(RosterDelta.between(index.roster(), next));
+        Assert.assertEquals(5, tested[0]);
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, updated.index(counting));
+    }
+
+    @Test
+    public void should_share_evaluation_between_equal_filters() throws Exception {
+        Assert.assertSame(index.bits(PersonFilters.namePrefix("Mat")),
+                index.bits(PersonFilters.namePrefix("mat")));
+        Assert.assertSame(index.index(PersonFilters.jobTitleContains("engineer")),
+                index.index(PersonFilters.jobTitleContains("engineer")));
+    }
+
+    @Test
+    public void should_filter_columnar_rosters_alike() throws Exception {
+        RosterIndex columnar = new RosterIndex(ColumnarRoster.copyOf(index.roster()));
+        RosterFilter[] filters = {
+                PersonFilters.jobTitleContains("ENGINEER"),
+                PersonFilters.namePrefix("mat"),
+                PersonFilters.firstNameContains("mat"),
+                PersonFilters.hasHeadshot().and(PersonFilters.headshotUrlContains("TEST").not()),
+                PersonFilters.headshotAtLeast(200, 200)};
+        for (RosterFilter filter : filters)
+            Assert.assertEquals(filter.key(), index.bits(filter), columnar.bits(filter));
+    }
+}
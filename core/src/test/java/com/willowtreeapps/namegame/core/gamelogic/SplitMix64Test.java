@@ -0,0 +1,46 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class SplitMix64Test {
+
+    @Test
+    public void should_match_splittable_random() throws Exception {
+        SplitMix64 random = new SplitMix64(42);
+        SplittableRandom reference = new SplittableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(reference.nextLong(), random.nextLong());
+            Assert.assertEquals(reference.nextInt(), random.nextInt());
+            Assert.assertEquals(reference.nextInt(6), random.nextInt(6));
+            Assert.assertEquals(reference.nextInt(64), random.nextInt(64));
+            Assert.assertEquals(reference.nextInt(1000003), random.nextInt(1000003));
+        }
+    }
+
+    @Test
+    public void should_split_like_splittable_random() throws Exception {
+        SplitMix64 split = new SplitMix64(7).split();
+        SplittableRandom reference = new SplittableRandom(7).split();
+        for (int i = 0; i < 1000; i++)
+            Assert.assertEquals(reference.nextLong(), split.nextLong());
+    }
+
+    @Test
+    public void should_stay_in_bounds() throws Exception {
+        SplitMix64 random = SplitMix64.withRandomSeed();
+        int[] counts = new int[6];
+        for (int i = 0; i < 60000; i++)
+            counts[random.nextInt(counts.length)]++;
+        for (int count : counts)
+            Assert.assertEquals(10000, count, 1000);
+    }
+
+    @Test
+    public void should_seed_each_instance_differently() throws Exception {
+        Assert.assertNotEquals(SplitMix64.withRandomSeed().nextLong(),
+                SplitMix64.withRandomSeed().nextLong());
+    }
+}
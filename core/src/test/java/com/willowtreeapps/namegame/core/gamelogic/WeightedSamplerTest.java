@@ -0,0 +1,67 @@
+package com.willowtreeapps.namegame.core.gamelogic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class WeightedSamplerTest {
+
+    /**
+     * @return the position found by laying the weights end to end, one by one
+     */
+    private static int scan(int[] weights, int target) {
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) return i;
+        }
+        throw new AssertionError();
+    }
+
+    @Test
+    public void should_find_the_position_spanning_a_target() throws Exception {
+        int[] weights = {3, 0, 1, 0, 0, 4, 2};
+        WeightedSampler sampler = new WeightedSampler(weights);
+        Assert.assertEquals(10, sampler.total());
+        Assert.assertEquals(4, sampler.positive());
+        for (int target = 0; target < sampler.total(); target++)
+            Assert.assertEquals(scan(weights, target), sampler.find(target));
+    }
+
+    @Test
+    public void should_follow_weight_changes() throws Exception {
+        Random random = new Random(5);
+        int[] weights = new int[1000];
+        for (int i = 0; i < weights.length; i++)
+            weights[i] = random.nextInt(4);
+        WeightedSampler sampler = new WeightedSampler(weights);
+
+        for (int change = 0; change < 5000; change++) {
+            int position = random.nextInt(weights.length);
+            weights[position] = random.nextInt(10);
+            sampler.set(position, weights[position]);
+
+            int total = 0;
+            for (int weight : weights)
+                total += weight;
+            Assert.assertEquals(total, sampler.total());
+            int target = random.nextInt(total);
+            Assert.assertEquals(scan(weights, target), sampler.find(target));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_negative_weights() throws Exception {
+        new WeightedSampler(new int[]{1, 2}).set(0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_an_overflowing_total() throws Exception {
+        new WeightedSampler(new int[]{Integer.MAX_VALUE, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_target_past_the_total() throws Exception {
+        new WeightedSampler(new int[]{1, 2}).find(3);
+    }
+}
@@ -0,0 +1,158 @@
+package com.willowtreeapps.namegame.core.history;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class HistoryStoreTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = folder.newFolder();
+    }
+
+    /**
+     * Records count outcomes, every third one wrong, about people p0 to p4
+     */
+    private static void play(HistoryStore store, int count) {
+        for (int i = 0; i < count; i++)
+            store.record(new RoundOutcome("p" + i % 5, 0, 100 + i % 5, i % 3 != 0));
+    }
+
+    private static void assertSameStats(PersonStats expected, PersonStats actual) {
+        Assert.assertEquals(expected.getAnswered(), actual.getAnswered());
+        Assert.assertEquals(expected.getCorrect(), actual.getCorrect());
+        Assert.assertEquals(expected.getTotalLatencyMillis(), actual.getTotalLatencyMillis());
+    }
+
+    private void assertReadBack(HistoryStore store) {
+        HistoryStore read = new HistoryStore(directory, DIRECT);
+        Assert.assertTrue(read.isLoaded());
+        assertSameStats(store.totals(), read.totals());
+        for (int i = 0; i < 5; i++)
+            assertSameStats(store.stats("p" + i), read.stats("p" + i));
+    }
+
+    @Test
+    public void should_count_outcomes_without_touching_the_disk() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        HistoryStore store = new HistoryStore(directory, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        play(store, HistoryStore.BATCH_SIZE - 1);
+
+        Assert.assertEquals(HistoryStore.BATCH_SIZE - 1, store.totals().getAnswered());
+        Assert.assertEquals(3, store.stats("p0").getAnswered());
+        Assert.assertEquals(2, store.stats("p0").getCorrect());
+        Assert.assertEquals(100, store.stats("p0").meanLatencyMillis());
+        Assert.assertEquals(0, store.stats("nobody").getAnswered());
+        // Only the read back is queued, and nothing ran yet
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertFalse(store.isLoaded());
+        Assert.assertEquals(0, directory.list().length);
+
+        // A full batch queues one write
+        play(store, 1);
+        store.flush();
+        Assert.assertEquals(2, tasks.size());
+        for (Runnable task : tasks)
+            task.run();
+        assertReadBack(store);
+    }
+
+    @Test
+    public void should_read_back_what_was_written() throws Exception {
+        HistoryStore store = new HistoryStore(directory, DIRECT);
+        play(store, 40);
+        store.flush();
+        assertReadBack(store);
+    }
+
+    @Test
+    public void should_add_to_the_history_read_back() throws Exception {
+        HistoryStore first = new HistoryStore(directory, DIRECT);
+        play(first, 20);
+        first.flush();
+
+        HistoryStore second = new HistoryStore(directory, DIRECT);
+        play(second, 20);
+        second.flush();
+        Assert.assertEquals(40, second.totals().getAnswered());
+        assertReadBack(second);
+    }
+
+    @Test
+    public void should_compact_the_log_into_counters() throws Exception {
+        HistoryStore store = new HistoryStore(directory, DIRECT);
+        play(store, HistoryStore.COMPACT_AFTER + HistoryStore.BATCH_SIZE);
+        store.flush();
+
+        File log = new File(directory, "history.log");
+        Assert.assertTrue(new File(directory, "history.stats").exists());
+        // One batch was logged since the compaction
+        Assert.assertTrue(log.length() < HistoryStore.BATCH_SIZE * 16);
+        assertReadBack(store);
+    }
+
+    @Test
+    public void should_ignore_a_log_that_was_already_compacted() throws Exception {
+        HistoryStore store = new HistoryStore(directory, DIRECT);
+        File log = new File(directory, "history.log");
+        play(store, HistoryStore.BATCH_SIZE);
+        byte[] compacted = Files.readAllBytes(log.toPath());
+        // The log is compacted on its last batch
+        play(store, HistoryStore.COMPACT_AFTER - HistoryStore.BATCH_SIZE);
+
+        // As if the app died between the write of the counters and the start of a new log
+        Files.write(log.toPath(), compacted);
+        assertReadBack(store);
+    }
+
+    @Test
+    public void should_keep_what_precedes_a_torn_record() throws Exception {
+        HistoryStore store = new HistoryStore(directory, DIRECT);
+        play(store, HistoryStore.BATCH_SIZE);
+        tear(new File(directory, "history.log"));
+        assertReadBack(store);
+
+        // The log was replaced, so what follows is readable
+        HistoryStore read = new HistoryStore(directory, DIRECT);
+        play(read, HistoryStore.BATCH_SIZE);
+        Assert.assertEquals(2 * HistoryStore.BATCH_SIZE,
+                new HistoryStore(directory, DIRECT).totals().getAnswered());
+    }
+
+    private static void tear(File file) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(new byte[]{0, 5, 'p'});
+        } finally {
+            out.close();
+        }
+    }
+}
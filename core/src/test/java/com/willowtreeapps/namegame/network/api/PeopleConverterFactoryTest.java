@@ -0,0 +1,100 @@
+package com.willowtreeapps.namegame.network.api;
+
+import com.google.gson.reflect.TypeToken;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+public class PeopleConverterFactoryTest {
+
+    private static final String PERSON = "{\n" +
+            "  \"id\": \"4NCJTL13UkK0qEIAAcg4IQ\",\n" +
+            "  \"type\": \"people\",\n" +
+            "  \"slug\": \"joel-garrett\",\n" +
+            "  \"jobTitle\": \"Senior Software Engineer\",\n" +
+            "  \"firstName\": \"Joel\",\n" +
+            "  \"lastName\": \"Garrett\",\n" +
+            "  \"headshot\": {\n" +
+            "    \"type\": \"image\",\n" +
+            "    \"mimeType\": \"image/jpeg\",\n" +
+            "    \"id\": \"4Mv2CONANym46UwuuCIgK\",\n" +
+            "    \"url\": \"//images.contentful.com/headshot_joel_garrett.jpg\",\n" +
+            "    \"alt\": \"headshot joel garrett\",\n" +
+            "    \"height\": 340,\n" +
+            "    \"width\": 320\n" +
+            "  },\n" +
+            "  \"socialLinks\": [ {\"type\": \"twitter\", \"callToAction\": \"Follow\", \"url\": \"https://twitter.com\"} ]\n" +
+            "}";
+
+    private static final Type LIST_OF_PERSON = new TypeToken<List<Person>>() {}.getType();
+
+    @SuppressWarnings("unchecked")
+    private static List<Person> convert(PeopleConverterFactory factory, String json) throws Exception {
+        Converter<ResponseBody, ?> converter =
+                factory.responseBodyConverter(LIST_OF_PERSON, new Annotation[0], null);
+        return (List<Person>) converter.convert(ResponseBody.create(MediaType.parse("application/json"), json));
+    }
+
+    private static Profiles convertPage(String json) throws Exception {
+        Converter<ResponseBody, ?> converter = new PeopleConverterFactory()
+                .responseBodyConverter(Profiles.class, new Annotation[0], null);
+        return (Profiles) converter.convert(ResponseBody.create(MediaType.parse("application/json"), json));
+    }
+
+    @Test
+    public void should_decode_the_fields_the_game_reads() throws Exception {
+        List<Person> people = convert(new PeopleConverterFactory(), "[" + PERSON + "]");
+
+        Assert.assertEquals(1, people.size());
+        Person person = people.get(0);
+        Assert.assertEquals("4NCJTL13UkK0qEIAAcg4IQ", person.getId());
+        Assert.assertEquals("Joel", person.getFirstName());
+        Assert.assertEquals("Garrett", person.getLastName());
+        Assert.assertEquals("Senior Software Engineer", person.getJobTitle());
+        Assert.assertEquals("//images.contentful.com/headshot_joel_garrett.jpg", person.getHeadshot().getUrl());
+        Assert.assertEquals("image/jpeg", person.getHeadshot().getMimeType());
+        Assert.assertEquals(340, person.getHeadshot().getHeight());
+        Assert.assertEquals(320, person.getHeadshot().getWidth());
+        Assert.assertTrue(person.getSocialLinks().isEmpty());
+    }
+
+    @Test
+    public void should_decode_people_wrapped_in_items() throws Exception {
+        List<Person> people = convert(new PeopleConverterFactory(),
+                "{\"meta\": {\"skip\": 0}, \"items\": [" + PERSON + "," + PERSON + "]}");
+        Assert.assertEquals(2, people.size());
+    }
+
+    @Test
+    public void should_decode_a_page_with_its_metadata() throws Exception {
+        Profiles page = convertPage("{\"meta\": {\"skip\": 20, \"limit\": 2, \"total\": 150}, " +
+                "\"items\": [" + PERSON + "," + PERSON + "]}");
+        Assert.assertEquals(2, page.getPeople().size());
+        Assert.assertEquals(20, page.getMetadata().getSkip());
+        Assert.assertEquals(2, page.getMetadata().getLimit());
+        Assert.assertEquals(150, page.getMetadata().getTotal());
+    }
+
+    @Test
+    public void should_take_an_unpaged_response_for_every_profile() throws Exception {
+        Profiles page = convertPage("[" + PERSON + "," + PERSON + "," + PERSON + "]");
+        Assert.assertEquals(3, page.getPeople().size());
+        Assert.assertEquals(3, page.getMetadata().getTotal());
+    }
+
+    @Test
+    public void should_leave_other_types_to_other_factories() throws Exception {
+        Assert.assertNull(new PeopleConverterFactory()
+                .responseBodyConverter(String.class, new Annotation[0], null));
+    }
+}
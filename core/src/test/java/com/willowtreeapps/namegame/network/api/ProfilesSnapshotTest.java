@@ -0,0 +1,108 @@
+package com.willowtreeapps.namegame.network.api;
+
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.SocialLinks;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class ProfilesSnapshotTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void should_read_back_written_people() throws Exception {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person("1", "people", "bill-smith", "Engineer", "Bill", "Smith",
+                new Headshot("image", "image/jpeg", "h1", "//images/bill.jpg", "bill", 340, 300),
+                Collections.singletonList(new SocialLinks("twitter", "Follow", "https://twitter.com/bill"))));
+        people.add(new Person("2", null, null, null, "Pam", "White", null, null));
+
+        ProfilesSnapshot snapshot = new ProfilesSnapshot(new File(folder.getRoot(), "profiles.bin"), DIRECT, DIRECT);
+        snapshot.write(people);
+
+        Assert.assertEquals(people, snapshot.read());
+    }
+
+    @Test
+    public void should_read_nothing_without_a_snapshot() throws Exception {
+        ProfilesSnapshot snapshot = new ProfilesSnapshot(new File(folder.getRoot(), "profiles.bin"), DIRECT, DIRECT);
+        Assert.assertNull(snapshot.read());
+    }
+
+    @Test
+    public void should_read_nothing_from_a_corrupt_snapshot() throws Exception {
+        File file = new File(folder.getRoot(), "profiles.bin");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[]{1, 2, 3});
+        out.close();
+
+        Assert.assertNull(new ProfilesSnapshot(file, DIRECT, DIRECT).read());
+    }
+
+    @Test
+    public void should_read_nothing_from_a_snapshot_claiming_too_many_people() throws Exception {
+        File file = new File(folder.getRoot(), "profiles.bin");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        ProfilesSnapshot.writePeople(out, Collections.<Person>emptyList());
+        out.close();
+        // Overwrites the count, the last int of the header
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(8);
+        raf.writeInt(Integer.MAX_VALUE);
+        raf.close();
+
+        Assert.assertNull(new ProfilesSnapshot(file, DIRECT, DIRECT).read());
+    }
+
+    @Test
+    public void should_read_in_the_background_and_call_back_on_the_callback_executor() throws Exception {
+        final List<Runnable> background = new ArrayList<>();
+        final List<Runnable> callbacks = new ArrayList<>();
+        ProfilesSnapshot snapshot = new ProfilesSnapshot(new File(folder.getRoot(), "profiles.bin"),
+                queue(background), queue(callbacks));
+        final List<List<Person>> read = new ArrayList<>();
+        snapshot.read(new ProfilesSnapshot.ReadCallback() {
+            @Override
+            public void onRead(List<Person> people) {
+                read.add(people);
+            }
+        });
+        Assert.assertEquals(1, background.size());
+        Assert.assertTrue(callbacks.isEmpty());
+
+        background.get(0).run();
+        Assert.assertTrue(read.isEmpty());
+        callbacks.get(0).run();
+        Assert.assertEquals(Collections.<List<Person>>singletonList(null), read);
+    }
+
+    private static Executor queue(final List<Runnable> tasks) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.willowtreeapps.namegame.network.api;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RosterDeltaTest {
+
+    private static Person person(String id, String firstName) {
+        return new Person(id, "people", null, null, firstName, "Smith", null, null);
+    }
+
+    @Test
+    public void should_add_everyone_to_no_roster() throws Exception {
+        List<Person> roster = Arrays.asList(person("1", "Bill"), person("2", "Pam"));
+        RosterDelta delta = RosterDelta.between(null, roster);
+        Assert.assertEquals(roster, delta.added());
+        Assert.assertTrue(delta.removed().isEmpty());
+        Assert.assertTrue(delta.changed().isEmpty());
+        Assert.assertEquals(-1, delta.previousPosition(0));
+    }
+
+    @Test
+    public void should_diff_by_id() throws Exception {
+        Person bill = person("1", "Bill");
+        Person pam = person("2", "Pam");
+        Person fred = person("3", "Fred");
+        Person renamed = person("2", "Pamela");
+        Person joe = person("4", "Joe");
+
+        RosterDelta delta = RosterDelta.between(Arrays.asList(bill, pam, fred),
+                Arrays.asList(joe, renamed, bill));
+        Assert.assertEquals(Collections.singletonList(joe), delta.added());
+        Assert.assertEquals(Collections.singletonList(fred), delta.removed());
+        Assert.assertEquals(Collections.singletonList(renamed), delta.changed());
+        Assert.assertFalse(delta.isEmpty());
+
+        Assert.assertEquals(-1, delta.previousPosition(0));
+        Assert.assertEquals(-1, delta.previousPosition(1));
+        Assert.assertEquals(0, delta.previousPosition(2));
+    }
+
+    @Test
+    public void should_tell_an_append_from_other_changes() throws Exception {
+        Person bill = person("1", "Bill");
+        Person pam = person("2", "Pam");
+        Person fred = person("3", "Fred");
+        Assert.assertTrue(RosterDelta.between(null, Arrays.asList(bill, pam)).isAppend());
+        Assert.assertTrue(RosterDelta.between(Arrays.asList(bill, pam), Arrays.asList(bill, pam, fred)).isAppend());
+        Assert.assertFalse(RosterDelta.between(Arrays.asList(bill, pam), Arrays.asList(pam, bill, fred)).isAppend());
+        Assert.assertFalse(RosterDelta.between(Arrays.asList(bill, pam), Arrays.asList(bill, fred)).isAppend());
+    }
+
+    @Test
+    public void should_be_empty_between_equal_rosters() throws Exception {
+        List<Person> before = Arrays.asList(person("1", "Bill"), person("2", "Pam"));
+        List<Person> after = Arrays.asList(person("2", "Pam"), person("1", "Bill"));
+        RosterDelta delta = RosterDelta.between(before, after);
+        Assert.assertTrue(delta.isEmpty());
+        Assert.assertEquals(1, delta.previousPosition(0));
+        Assert.assertEquals(0, delta.previousPosition(1));
+    }
+
+    @Test
+    public void should_match_repeated_ids_in_order_on_both_sides() throws Exception {
+        Person bill = person("1", "Bill");
+        Person billy = person("1", "Billy");
+        Person will = person("1", "Will");
+        Person pam = person("2", "Pam");
+
+        // The first Bill of each side match; the second is changed, and the third removed
+        RosterDelta delta = RosterDelta.between(Arrays.asList(bill, pam, billy, will),
+                Arrays.asList(pam, bill, bill));
+        Assert.assertTrue(delta.added().isEmpty());
+        Assert.assertEquals(Collections.singletonList(bill), delta.changed());
+        Assert.assertEquals(Collections.singletonList(will), delta.removed());
+        Assert.assertEquals(1, delta.previousPosition(0));
+        Assert.assertEquals(0, delta.previousPosition(1));
+        Assert.assertEquals(-1, delta.previousPosition(2));
+
+        // Back again, the extra Bills are added
+        delta = RosterDelta.between(Arrays.asList(pam, bill), Arrays.asList(bill, bill, pam, bill));
+        Assert.assertEquals(Arrays.asList(bill, bill), delta.added());
+        Assert.assertTrue(delta.removed().isEmpty());
+        Assert.assertTrue(delta.changed().isEmpty());
+        Assert.assertEquals(1, delta.previousPosition(0));
+        Assert.assertEquals(-1, delta.previousPosition(1));
+        Assert.assertEquals(0, delta.previousPosition(2));
+    }
+
+    @Test
+    public void should_diff_columnar_rosters_alike() throws Exception {
+        List<Person> before = Arrays.asList(person("1", "Bill"), person("2", "Pam"),
+                person("3", "Fred"), person("1", "Will"));
+        List<Person> after = Arrays.asList(person("4", "Joe"), person("2", "Pamela"),
+                person("1", "Bill"), person("3", "Fred"));
+        RosterDelta expected = RosterDelta.between(before, after);
+        RosterDelta delta = RosterDelta.between(ColumnarRoster.copyOf(before), ColumnarRoster.copyOf(after));
+
+        Assert.assertEquals(expected.added(), delta.added());
+        Assert.assertEquals(expected.removed(), delta.removed());
+        Assert.assertEquals(expected.changed(), delta.changed());
+        Assert.assertEquals(Collections.singletonList(person("1", "Will")), delta.removed());
+        for (int i = 0; i < after.size(); i++)
+            Assert.assertEquals(expected.previousPosition(i), delta.previousPosition(i));
+    }
+}
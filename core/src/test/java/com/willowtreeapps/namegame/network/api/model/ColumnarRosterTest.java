@@ -0,0 +1,79 @@
+package com.willowtreeapps.namegame.network.api.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ColumnarRosterTest {
+
+    private static final List<Person> PEOPLE = Arrays.asList(
+            new Person("1", "people", "bill-smith", "Engineer", "Bill", "Smith",
+                    new Headshot("image", "image/jpeg", "h1", "//images/bill.jpg", "Bill", 340, 320),
+                    Collections.singletonList(new SocialLinks("twitter", "Follow", "https://twitter.com/bill"))),
+            new Person("2", "people", "pam-smith", "Engineer", "Pam", "Smith", null,
+                    Collections.<SocialLinks>emptyList()),
+            new Person("3", null, null, null, "Bill", null, null, null));
+
+    @Test
+    public void should_materialize_the_people_it_was_built_from() throws Exception {
+        ColumnarRoster roster = ColumnarRoster.copyOf(PEOPLE);
+        Assert.assertEquals(PEOPLE.size(), roster.size());
+        for (int i = 0; i < PEOPLE.size(); i++)
+            Assert.assertEquals(PEOPLE.get(i), roster.get(i));
+        Assert.assertEquals(PEOPLE, roster);
+        Assert.assertEquals(roster, PEOPLE);
+        Assert.assertEquals(PEOPLE.hashCode(), roster.hashCode());
+    }
+
+    @Test
+    public void should_read_columns_without_materializing() throws Exception {
+        ColumnarRoster roster = ColumnarRoster.copyOf(PEOPLE);
+        Assert.assertEquals("2", roster.id(1));
+        Assert.assertEquals("Pam", roster.firstName(1));
+        Assert.assertEquals("Smith", roster.lastName(1));
+        Assert.assertEquals("//images/bill.jpg", roster.headshotUrl(0));
+        Assert.assertNull(roster.headshotUrl(1));
+        Assert.assertNull(roster.lastName(2));
+    }
+
+    @Test
+    public void should_store_repeated_strings_once() throws Exception {
+        ColumnarRoster roster = ColumnarRoster.copyOf(PEOPLE);
+        // "Bill", the alt text included, "Smith", "Engineer" and "people" repeat
+        Assert.assertEquals(14, roster.distinctStrings());
+        Assert.assertSame(roster.firstName(0), roster.firstName(2));
+    }
+
+    @Test
+    public void should_compare_columnar_rosters_by_value() throws Exception {
+        ColumnarRoster roster = ColumnarRoster.copyOf(PEOPLE);
+        Assert.assertEquals(roster, ColumnarRoster.copyOf(new ArrayList<>(PEOPLE)));
+        Assert.assertNotEquals(roster, ColumnarRoster.copyOf(PEOPLE.subList(0, 2)));
+
+        List<Person> renamed = new ArrayList<>(PEOPLE);
+        renamed.set(1, new Person("2", "people", "pam-smith", "Engineer", "Pamela", "Smith", null,
+                Collections.<SocialLinks>emptyList()));
+        Assert.assertNotEquals(roster, ColumnarRoster.copyOf(renamed));
+    }
+
+    @Test
+    public void should_build_the_people_added_so_far() throws Exception {
+        ColumnarRoster.Builder builder = new ColumnarRoster.Builder(1);
+        builder.add(PEOPLE.get(0));
+        ColumnarRoster first = builder.build();
+        builder.add(PEOPLE.get(1)).add(PEOPLE.get(2));
+
+        Assert.assertEquals(PEOPLE.subList(0, 1), first);
+        Assert.assertEquals(PEOPLE, builder.build());
+        Assert.assertTrue(ColumnarRoster.empty().isEmpty());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void should_throw_out_of_bounds() throws Exception {
+        ColumnarRoster.copyOf(PEOPLE).get(PEOPLE.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.willowtreeapps.namegame.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ListenerRegistryTest {
+
+    private static final ListenerRegistry.Event<Recorder, String> RECORD =
+            new ListenerRegistry.Event<Recorder, String>() {
+                @Override
+                public void deliver(Recorder listener, String value) {
+                    listener.onEvent(value);
+                }
+            };
+
+    private static class Recorder {
+        final List<String> events = new ArrayList<>();
+
+        void onEvent(String event) {
+            events.add(event);
+        }
+    }
+
+    @Test
+    public void should_not_register_a_listener_twice() throws Exception {
+        ListenerRegistry<Object> registry = new ListenerRegistry<>();
+        Object listener = new Object();
+        Assert.assertTrue(registry.add(listener));
+        Assert.assertFalse(registry.add(listener));
+        Assert.assertEquals(1, registry.size());
+        Assert.assertTrue(registry.remove(listener));
+        Assert.assertFalse(registry.remove(listener));
+        Assert.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void should_deliver_in_registration_order() throws Exception {
+        final List<String> order = new ArrayList<>();
+        ListenerRegistry<String> registry = new ListenerRegistry<>();
+        registry.add("a");
+        registry.add("b");
+        registry.add("c");
+        registry.remove("b");
+        registry.add("b");
+        registry.dispatch(new ListenerRegistry.Event<String, Void>() {
+            @Override
+            public void deliver(String listener, Void value) {
+                order.add(listener);
+            }
+        }, null);
+        Assert.assertEquals("[a, c, b]", order.toString());
+    }
+
+    @Test
+    public void should_deliver_to_the_listeners_registered_when_dispatch_starts() throws Exception {
+        final ListenerRegistry<Recorder> registry = new ListenerRegistry<>();
+        final Recorder late = new Recorder();
+        Recorder first = new Recorder() {
+            @Override
+            void onEvent(String event) {
+                // Mutates the registry mid-dispatch
+                registry.add(late);
+                super.onEvent(event);
+            }
+        };
+        Recorder second = new Recorder();
+        registry.add(first);
+        registry.add(second);
+
+        registry.dispatch(RECORD, "event");
+        Assert.assertEquals(1, first.events.size());
+        Assert.assertEquals(1, second.events.size());
+        Assert.assertTrue(late.events.isEmpty());
+    }
+
+    @Test
+    public void should_dispatch_while_listeners_come_and_go() throws Exception {
+        final ListenerRegistry<Recorder> registry = new ListenerRegistry<>();
+        final Recorder stable = new Recorder();
+        registry.add(stable);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Thread churn = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (done.getCount() > 0) {
+                        Recorder listener = new Recorder();
+                        registry.add(listener);
+                        registry.remove(listener);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        });
+        churn.start();
+        for (int i = 0; i < 100000; i++)
+            registry.dispatch(RECORD, "event");
+        done.countDown();
+        churn.join();
+
+        Assert.assertNull(failure.get());
+        // The listener that stayed registered missed nothing
+        Assert.assertEquals(100000, stable.events.size());
+    }
+}
@@ -0,0 +1,16 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+
+import java.util.Random;
+
+/**
+ * A simulated player, which answers each round of a game
+ */
+public interface PlayerStrategy {
+    /**
+     * @param round the current round, before it is answered
+     * @return the index of the item to select, in [0, round.numberOfPeople())
+     */
+    int select(GameLogic.PeopleLogic round, Random random);
+}
@@ -0,0 +1,91 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+
+import java.util.Random;
+
+/**
+ * The built-in {@link PlayerStrategy}s
+ */
+public final class Players {
+
+    private static final PlayerStrategy PERFECT = new PlayerStrategy() {
+        @Override
+        public int select(GameLogic.PeopleLogic round, Random random) {
+            return round.correctItemIndex();
+        }
+    };
+
+    private static final PlayerStrategy RANDOM = new PlayerStrategy() {
+        @Override
+        public int select(GameLogic.PeopleLogic round, Random random) {
+            return random.nextInt(round.numberOfPeople());
+        }
+    };
+
+    private static final PlayerStrategy TOP_LEFT = new PlayerStrategy() {
+        @Override
+        public int select(GameLogic.PeopleLogic round, Random random) {
+            return 0;
+        }
+    };
+
+    private Players() {}
+
+    /**
+     * Always answers correctly
+     */
+    public static PlayerStrategy perfect() {
+        return PERFECT;
+    }
+
+    /**
+     * Guesses
+     */
+    public static PlayerStrategy random() {
+        return RANDOM;
+    }
+
+    /**
+     * Always selects the first item, which only pays off in the cheat mode
+     */
+    public static PlayerStrategy topLeft() {
+        return TOP_LEFT;
+    }
+
+    /**
+     * Knows the answer with probability accuracy, and guesses otherwise
+     */
+    public static PlayerStrategy accuracy(final double accuracy) {
+        if (accuracy < 0 || accuracy > 1)
+            throw new IllegalArgumentException("Accuracy must be in [0, 1]: " + accuracy);
+        return new PlayerStrategy() {
+            @Override
+            public int select(GameLogic.PeopleLogic round, Random random) {
+                return random.nextDouble() < accuracy ?
+                        round.correctItemIndex() :
+                        random.nextInt(round.numberOfPeople());
+            }
+        };
+    }
+
+    /**
+     * @param name perfect, random, top-left, or an accuracy in [0, 1]
+     */
+    public static PlayerStrategy forName(String name) {
+        switch (name) {
+            case "perfect":
+                return perfect();
+            case "random":
+                return random();
+            case "top-left":
+                return topLeft();
+            default:
+                try {
+                    return accuracy(Double.parseDouble(name));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unknown player " + name);
+                }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.network.api.NameGameApi;
+import com.willowtreeapps.namegame.network.api.model.Metadata;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.Profiles;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Answers every request at once with a fixed roster, so a ProfilesRepository loads without a
+ * network
+ */
+public final class RosterApi implements NameGameApi {
+
+    private final List<Person> people;
+
+    public RosterApi(List<Person> people) {
+        this.people = people;
+    }
+
+    @Override
+    public Call<List<Person>> getProfiles() {
+        return new ImmediateCall<>(people);
+    }
+
+    @Override
+    public Call<List<Person>> revalidateProfiles() {
+        return new ImmediateCall<>(people);
+    }
+
+    @Override
+    public Call<Profiles> getProfilesPage(int skip, int limit) {
+        int from = Math.min(skip, people.size());
+        int to = Math.min(from + limit, people.size());
+        return new ImmediateCall<>(new Profiles(people.subList(from, to),
+                new Metadata(skip, limit, people.size())));
+    }
+
+    private static final class ImmediateCall<T> implements Call<T> {
+        private final T body;
+        private boolean executed;
+
+        ImmediateCall(T body) {
+            this.body = body;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return Response.success(body);
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            executed = true;
+            callback.onResponse(this, Response.success(body));
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {}
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new ImmediateCall<>(body);
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("http://localhost/api/v1.0/profiles").build();
+        }
+    }
+}
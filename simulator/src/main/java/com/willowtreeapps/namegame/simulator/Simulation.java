@@ -0,0 +1,158 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+import com.willowtreeapps.namegame.core.gamelogic.ListRandomizer;
+import com.willowtreeapps.namegame.core.gamelogic.RosterFilter;
+import com.willowtreeapps.namegame.core.gamelogic.RosterIndex;
+import com.willowtreeapps.namegame.core.gamelogic.SplitMix64;
+import com.willowtreeapps.namegame.network.api.ProfilesRepository;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * <p>Plays one mode of {@link GameLogic} over a roster, with no UI, answering every round with a
+ * {@link PlayerStrategy}.</p>
+ * <p>Counts how often each eligible person is shown and is the answer, so the picks of the
+ * {@link ListRandomizer} can be tested for uniformity. The counting itself does not allocate, so
+ * the allocation per round is that of the game logic. Not thread-safe.</p>
+ */
+public class Simulation {
+
+    private final int mode;
+    private final PlayerStrategy player;
+    private final Random playerRandom;
+    private final GameLogic.PeopleLogic peopleLogic;
+    /**
+     * Position in the roster of each person, by id. The roster materializes a new Person each time
+     * it is read, so people are not compared by identity
+     */
+    private final Map<String, Integer> positions;
+    /**
+     * The positions of the people the mode plays
+     */
+    private final int[] eligible;
+
+    public Simulation(List<Person> roster, int mode, PlayerStrategy player, long seed) {
+        this.mode = mode;
+        this.player = player;
+        this.playerRandom = new Random(~seed);
+
+        GameLogic gameLogic = new GameLogic(new ListRandomizer(new SplitMix64(seed)),
+                new ProfilesRepository(new RosterApi(roster)));
+        if (!gameLogic.newGame(mode))
+            throw new IllegalStateException("Unable to start mode " + mode);
+        peopleLogic = gameLogic.getPeopleLogic();
+
+        positions = new HashMap<>(roster.size() * 2);
+        for (int i = 0; i < roster.size(); i++)
+            positions.put(roster.get(i).getId(), i);
+
+        RosterFilter filter = GameLogic.eligibility(mode);
+        if (filter == null) {
+            eligible = new int[roster.size()];
+            for (int i = 0; i < eligible.length; i++)
+                eligible[i] = i;
+        } else {
+            eligible = new RosterIndex(roster).index(filter);
+        }
+    }
+
+    public Report run(long rounds) {
+        int rosterSize = positions.size();
+        long[] shown = new long[rosterSize];
+        long[] answers = new long[rosterSize];
+        long correct = 0;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threads);
+        long start = System.nanoTime();
+
+        List<Person> items;
+        for (long round = 0; round < rounds; round++) {
+            peopleLogic.next();
+            items = mode == GameLogic.Mode.REVERSE ?
+                    peopleLogic.currentNames() :
+                    peopleLogic.currentThumbs();
+            for (int i = 0; i < items.size(); i++)
+                shown[positions.get(items.get(i).getId())]++;
+            answers[positions.get(items.get(peopleLogic.correctItemIndex()).getId())]++;
+
+            peopleLogic.onItemSelected(player.select(peopleLogic, playerRandom));
+            if (peopleLogic.isCorrect()) correct++;
+        }
+
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes(threads);
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 :
+                allocatedAfter - allocatedBefore;
+
+        return new Report(mode, rounds, nanos, allocated, correct,
+                eligibleCounts(shown), eligibleCounts(answers));
+    }
+
+    private long[] eligibleCounts(long[] counts) {
+        long[] result = new long[eligible.length];
+        for (int i = 0; i < eligible.length; i++)
+            result[i] = counts[eligible[i]];
+        return result;
+    }
+
+    /**
+     * @return the bytes allocated by this thread so far, or -1 when the JVM does not tell
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+        if (!sun.isThreadAllocatedMemorySupported() || !sun.isThreadAllocatedMemoryEnabled())
+            return -1;
+        return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static final class Report {
+        public final int mode;
+        public final long rounds;
+        public final long nanos;
+        /**
+         * Bytes allocated by the rounds, or -1 when unknown
+         */
+        public final long allocatedBytes;
+        public final long correct;
+        /**
+         * Times each eligible person was shown
+         */
+        public final long[] shown;
+        /**
+         * Times each eligible person was the answer
+         */
+        public final long[] answers;
+
+        Report(int mode, long rounds, long nanos, long allocatedBytes, long correct,
+               long[] shown, long[] answers) {
+            this.mode = mode;
+            this.rounds = rounds;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.correct = correct;
+            this.shown = shown;
+            this.answers = answers;
+        }
+
+        public double roundsPerSecond() {
+            return rounds * 1e9 / nanos;
+        }
+
+        public double bytesPerRound() {
+            return allocatedBytes < 0 ? Double.NaN : (double) allocatedBytes / rounds;
+        }
+
+        public double accuracy() {
+            return (double) correct / rounds;
+        }
+    }
+}
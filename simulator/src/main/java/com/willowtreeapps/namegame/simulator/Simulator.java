@@ -0,0 +1,97 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Command line driver of {@link Simulation}: plays each mode over a synthetic roster and prints
+ * throughput, allocation, scoring and the uniformity of the picks.</p>
+ * <p>Options, all optional: --rounds=1000000 --warmup=100000 --roster=10000 --eligible=0.1
+ * --player=perfect|random|top-left|&lt;accuracy&gt; --mode=all|STANDARD|NO_GHOST|MAT|CHEAT|REVERSE
+ * --seed=42</p>
+ */
+public final class Simulator {
+
+    private static final String[] MODE_NAMES = {"STANDARD", "NO_GHOST", "MAT", "CHEAT", "REVERSE"};
+    private static final int[] MODES = {
+            GameLogic.Mode.STANDARD,
+            GameLogic.Mode.NO_GHOST,
+            GameLogic.Mode.MAT,
+            GameLogic.Mode.CHEAT,
+            GameLogic.Mode.REVERSE
+    };
+
+    private Simulator() {}
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        long rounds = Long.parseLong(option(options, "rounds", "1000000"));
+        long warmup = Long.parseLong(option(options, "warmup", String.valueOf(rounds / 10)));
+        int rosterSize = Integer.parseInt(option(options, "roster", "10000"));
+        double eligible = Double.parseDouble(option(options, "eligible", "0.1"));
+        String playerName = option(options, "player", "perfect");
+        PlayerStrategy player = Players.forName(playerName);
+        String modeName = option(options, "mode", "all");
+        long seed = Long.parseLong(option(options, "seed", "42"));
+
+        List<Person> roster = SyntheticRoster.generate(rosterSize, eligible, seed);
+        System.out.println(String.format(Locale.US,
+                "roster=%d eligible=%.3f player=%s rounds=%d warmup=%d seed=%d",
+                rosterSize, eligible, playerName, rounds, warmup, seed));
+        System.out.println(String.format(Locale.US, "%-9s %12s %10s %9s %20s %20s",
+                "mode", "rounds/s", "B/round", "accuracy", "shown chi2/df (p)", "answer chi2/df (p)"));
+
+        for (int i = 0; i < MODES.length; i++) {
+            if (!"all".equals(modeName) && !MODE_NAMES[i].equals(modeName)) continue;
+
+            Simulation simulation = new Simulation(roster, MODES[i], player, seed + i);
+            // Lets the JIT compile the rounds before they are measured
+            simulation.run(warmup);
+            Simulation.Report report = simulation.run(rounds);
+            System.out.println(String.format(Locale.US, "%-9s %12.0f %10.1f %9.4f %20s %20s",
+                    MODE_NAMES[i],
+                    report.roundsPerSecond(),
+                    report.bytesPerRound(),
+                    report.accuracy(),
+                    uniformity(report.shown),
+                    uniformity(report.answers)));
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        System.out.println(String.format(Locale.US, "heap used after gc: %.1f MiB",
+                memory.getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0)));
+    }
+
+    private static String uniformity(long[] counts) {
+        int degreesOfFreedom = counts.length - 1;
+        if (degreesOfFreedom <= 0) return "n/a";
+        double chiSquare = Uniformity.chiSquare(counts);
+        return String.format(Locale.US, "%.3f (%.3f)",
+                chiSquare / degreesOfFreedom,
+                Uniformity.pValue(chiSquare, degreesOfFreedom));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0)
+                throw new IllegalArgumentException("Expected --option=value: " + arg);
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static String option(Map<String, String> options, String name, String defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.network.api.model.ColumnarRoster;
+import com.willowtreeapps.namegame.network.api.model.Headshot;
+import com.willowtreeapps.namegame.network.api.model.Person;
+import com.willowtreeapps.namegame.network.api.model.SocialLinks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates rosters of any size with a chosen share of people eligible for the filtered modes. They
+ * are columnar, as the rosters the app loads
+ */
+public final class SyntheticRoster {
+
+    private static final String[] MAT_NAMES = {"Matt", "Matthew", "Mathilde", "Matias"};
+    private static final String[] OTHER_NAMES = {"Anna", "Ben", "Chloe", "David", "Elena", "Frank",
+            "Grace", "Henry", "Iris", "Jack"};
+    private static final String[] LAST_NAMES = {"Smith", "Jones", "Brown", "Lee", "Garcia", "Kim"};
+
+    private SyntheticRoster() {}
+
+    /**
+     * @param eligible share of people, in [0, 1], who have a real headshot and a first name
+     *                 containing "mat". The others are ghosts, or have a test headshot
+     */
+    public static List<Person> generate(int size, double eligible, long seed) {
+        Random random = new Random(seed);
+        ColumnarRoster.Builder people = new ColumnarRoster.Builder(size);
+        for (int i = 0; i < size; i++) {
+            boolean isEligible = random.nextDouble() < eligible;
+            String id = "person-" + i;
+            String firstName = isEligible ?
+                    MAT_NAMES[random.nextInt(MAT_NAMES.length)] :
+                    OTHER_NAMES[random.nextInt(OTHER_NAMES.length)];
+            Headshot headshot;
+            if (isEligible) {
+                headshot = headshot(id, "//images.example.com/" + id + ".jpg");
+            } else {
+                headshot = random.nextBoolean() ? null :
+                        headshot(id, "//images.example.com/TEST" + id + ".jpg");
+            }
+            people.add(new Person(id, "people", firstName.toLowerCase() + "-" + i,
+                    "Software Engineer",
+                    firstName,
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    headshot,
+                    Collections.<SocialLinks>emptyList()));
+        }
+        return people.build();
+    }
+
+    private static Headshot headshot(String id, String url) {
+        return new Headshot("image", "image/jpeg", "headshot-" + id, url, null, 340, 340);
+    }
+}
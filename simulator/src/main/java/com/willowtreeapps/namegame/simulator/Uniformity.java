@@ -0,0 +1,51 @@
+package com.willowtreeapps.namegame.simulator;
+
+/**
+ * Pearson's chi-square test of counts against a uniform distribution
+ */
+public final class Uniformity {
+
+    private Uniformity() {}
+
+    /**
+     * @return the chi-square statistic of counts, against the same expected count in each cell
+     */
+    public static double chiSquare(long[] counts) {
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        double expected = (double) total / counts.length;
+        if (expected == 0) return 0;
+
+        double chiSquare = 0;
+        double d;
+        for (long count : counts) {
+            d = count - expected;
+            chiSquare += d * d / expected;
+        }
+        return chiSquare;
+    }
+
+    /**
+     * Wilson-Hilferty approximation of the upper tail of the chi-square distribution, accurate
+     * enough for the large degrees of freedom of a roster
+     *
+     * @return the probability of a statistic at least as large as chiSquare, were the counts
+     * uniform
+     */
+    public static double pValue(double chiSquare, int degreesOfFreedom) {
+        if (degreesOfFreedom <= 0) return 1;
+        double k = degreesOfFreedom;
+        double z = (Math.cbrt(chiSquare / k) - (1 - 2 / (9 * k))) / Math.sqrt(2 / (9 * k));
+        return upperNormalTail(z);
+    }
+
+    // Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+    private static double upperNormalTail(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erfc = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 +
+                t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? erfc / 2 : 1 - erfc / 2;
+    }
+}
@@ -0,0 +1,70 @@
+package com.willowtreeapps.namegame.simulator;
+
+import com.willowtreeapps.namegame.core.GameLogic;
+import com.willowtreeapps.namegame.network.api.model.Person;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SimulationTest {
+
+    private static final int ROUNDS = 20000;
+
+    private List<Person> roster;
+
+    @Before
+    public void setUp() throws Exception {
+        roster = SyntheticRoster.generate(200, 0.25, 42);
+    }
+
+    @Test
+    public void should_score_every_round_of_a_perfect_player() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.STANDARD,
+                Players.perfect(), 1).run(ROUNDS);
+        Assert.assertEquals(ROUNDS, report.correct);
+    }
+
+    @Test
+    public void should_score_a_sixth_of_random_guesses() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.STANDARD,
+                Players.random(), 1).run(ROUNDS);
+        Assert.assertEquals(1 / 6.0, report.accuracy(), 0.01);
+    }
+
+    @Test
+    public void should_pay_off_top_left_in_cheat_mode() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.CHEAT,
+                Players.topLeft(), 1).run(ROUNDS);
+        Assert.assertEquals(ROUNDS, report.correct);
+    }
+
+    @Test
+    public void should_only_show_eligible_people_in_filtered_modes() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.NO_GHOST,
+                Players.perfect(), 1).run(ROUNDS);
+        long shown = 0;
+        for (long count : report.shown)
+            shown += count;
+        // Every thumb of every round was counted against an eligible person
+        Assert.assertEquals(6L * ROUNDS, shown);
+    }
+
+    @Test
+    public void should_pick_uniformly() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.STANDARD,
+                Players.perfect(), 1).run(ROUNDS);
+        int degreesOfFreedom = report.shown.length - 1;
+        Assert.assertTrue(Uniformity.pValue(Uniformity.chiSquare(report.shown), degreesOfFreedom) > 0.001);
+        Assert.assertTrue(Uniformity.pValue(Uniformity.chiSquare(report.answers), degreesOfFreedom) > 0.001);
+    }
+
+    @Test
+    public void should_play_reverse_mode() throws Exception {
+        Simulation.Report report = new Simulation(roster, GameLogic.Mode.REVERSE,
+                Players.perfect(), 1).run(ROUNDS);
+        Assert.assertEquals(ROUNDS, report.rounds);
+    }
+}
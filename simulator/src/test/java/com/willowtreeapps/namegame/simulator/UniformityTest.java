@@ -0,0 +1,27 @@
+package com.willowtreeapps.namegame.simulator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UniformityTest {
+
+    @Test
+    public void should_accept_uniform_counts() throws Exception {
+        long[] counts = {100, 100, 100, 100};
+        Assert.assertEquals(0, Uniformity.chiSquare(counts), 1e-9);
+        Assert.assertTrue(Uniformity.pValue(0, 3) > 0.99);
+    }
+
+    @Test
+    public void should_reject_skewed_counts() throws Exception {
+        long[] counts = {400, 0, 0, 0};
+        Assert.assertEquals(1200, Uniformity.chiSquare(counts), 1e-9);
+        Assert.assertTrue(Uniformity.pValue(1200, 3) < 1e-6);
+    }
+
+    @Test
+    public void should_approximate_the_critical_value() throws Exception {
+        // The 5% critical value of 100 degrees of freedom is 124.342
+        Assert.assertEquals(0.05, Uniformity.pValue(124.342, 100), 0.002);
+    }
+}